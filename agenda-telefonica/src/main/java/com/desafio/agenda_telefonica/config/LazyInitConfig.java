@@ -0,0 +1,20 @@
+package com.desafio.agenda_telefonica.config;
+
+import com.desafio.agenda_telefonica.service.ArquivamentoService;
+import com.desafio.agenda_telefonica.service.AuditoriaService;
+import com.desafio.agenda_telefonica.service.ContatoStreamService;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Com spring.main.lazy-initialization=true (profile fast-start), beans com @Scheduled só seriam
+// registrados no agendador quando alguém os usasse. Estes ficam sempre ansiosos.
+@Configuration
+public class LazyInitConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter jobsAgendadosNaoLazy() {
+        return LazyInitializationExcludeFilter.forBeanTypes(AuditoriaService.class, ContatoStreamService.class,
+                ArquivamentoService.class);
+    }
+}
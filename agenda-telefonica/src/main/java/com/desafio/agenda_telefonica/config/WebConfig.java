@@ -1,5 +1,6 @@
 package com.desafio.agenda_telefonica.config;
 
+import com.desafio.agenda_telefonica.controller.ContatoController;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
@@ -16,7 +17,8 @@ public class WebConfig {
             public void addCorsMappings(CorsRegistry registry) {
                 registry.addMapping("/**") // todas as rotas
                         .allowedOrigins("http://localhost:4200")
-                        .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE");
+                        .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE")
+                        .exposedHeaders(ContatoController.HEADER_TOTAL);
             }
         };
     }
@@ -0,0 +1,70 @@
+package com.desafio.agenda_telefonica.controller;
+
+import com.desafio.agenda_telefonica.dto.ResponseDTO;
+import com.desafio.agenda_telefonica.exception.CelularDuplicadoException;
+import com.desafio.agenda_telefonica.exception.ContatoNaoEncontradoException;
+import com.desafio.agenda_telefonica.exception.RecursoNaoSuportadoException;
+import com.desafio.agenda_telefonica.exception.RestricaoUnica;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
+
+// Converte as exceções de negócio em status HTTP com o envelope padrão ResponseDTO.
+// Exceções do próprio Spring MVC (JSON inválido, método não suportado...) ficam com a classe base.
+@RestControllerAdvice
+public class ApiExceptionHandler extends ResponseEntityExceptionHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(ApiExceptionHandler.class);
+
+    static final String MSG_TAG_CONCORRENTE = "Tag criada ao mesmo tempo por outra requisição. Tente novamente.";
+    static final String MSG_DADOS_INVALIDOS = "Dados inválidos: violam uma restrição do cadastro";
+
+    @ExceptionHandler(ContatoNaoEncontradoException.class)
+    public ResponseEntity<ResponseDTO<Void>> naoEncontrado(ContatoNaoEncontradoException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ResponseDTO.erro(e.getMessage()));
+    }
+
+    @ExceptionHandler(CelularDuplicadoException.class)
+    public ResponseEntity<ResponseDTO<Void>> celularDuplicado(CelularDuplicadoException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ResponseDTO.erro(e.getMessage()));
+    }
+
+    // Violação de constraint detectada só no flush/commit, traduzida pelo nome da constraint:
+    // celular gravado por outra requisição, tag nova criada por outra requisição ao mesmo tempo.
+    // As demais (ex.: coluna obrigatória nula) são dado inválido.
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ResponseDTO<Void>> violacaoDeIntegridade(DataIntegrityViolationException e) {
+        RestricaoUnica restricao = RestricaoUnica.violada(e).orElse(null);
+        if (restricao == RestricaoUnica.CELULAR) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(ResponseDTO.erro(CelularDuplicadoException.MENSAGEM));
+        }
+        if (restricao == RestricaoUnica.TAG) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(ResponseDTO.erro(MSG_TAG_CONCORRENTE));
+        }
+        log.warn("Violação de integridade", e);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ResponseDTO.erro(MSG_DADOS_INVALIDOS));
+    }
+
+    // Recurso indisponível no armazenamento em uso (ex.: tags no profile edge)
+    @ExceptionHandler(RecursoNaoSuportadoException.class)
+    public ResponseEntity<ResponseDTO<Void>> naoSuportado(RecursoNaoSuportadoException e) {
+        return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).body(ResponseDTO.erro(e.getMessage()));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ResponseDTO<Void>> requisicaoInvalida(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ResponseDTO.erro(e.getMessage()));
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ResponseDTO<Void>> erroInesperado(Exception e) {
+        log.error("Erro inesperado", e);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ResponseDTO.erro("Erro inesperado: " + e.getMessage()));
+    }
+}
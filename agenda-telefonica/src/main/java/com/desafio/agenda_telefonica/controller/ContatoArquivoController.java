@@ -0,0 +1,25 @@
+package com.desafio.agenda_telefonica.controller;
+
+import com.desafio.agenda_telefonica.dto.ResponseDTO;
+import com.desafio.agenda_telefonica.model.Contato;
+import com.desafio.agenda_telefonica.service.ArquivamentoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+// Contatos arquivados (inativos antigos, fora da tabela contato). A listagem fica em GET /api/contatos/inativos?page=
+@RestController
+@Profile("!edge")
+@RequestMapping("/api/contatos/arquivo")
+public class ContatoArquivoController {
+
+    @Autowired
+    private ArquivamentoService service;
+
+    // Volta o contato para a agenda com o mesmo ID, ainda inativo
+    @PostMapping("/{id}/restaurar")
+    public ResponseEntity<ResponseDTO<Contato>> restaurar(@PathVariable Long id) {
+        return ResponseEntity.ok(ResponseDTO.sucesso(ResponseDTO.MSG_RESTAURADO, service.restaurar(id)));
+    }
+}
@@ -1,26 +1,36 @@
 package com.desafio.agenda_telefonica.controller;
 
+import com.desafio.agenda_telefonica.dto.ContatoInativoDTO;
 import com.desafio.agenda_telefonica.dto.ResponseDTO;
+import com.desafio.agenda_telefonica.exception.ContatoNaoEncontradoException;
 import com.desafio.agenda_telefonica.model.Contato;
+import com.desafio.agenda_telefonica.repository.ContatoFiltro;
 import com.desafio.agenda_telefonica.service.ContatoService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.PagedModel;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/contatos")
 public class ContatoController {
 
+    // Total estimado da listagem filtrada (exposto no CORS, ver WebConfig)
+    public static final String HEADER_TOTAL = "X-Total-Count";
+
     @Autowired
     private ContatoService service;
 
     // Criar contato
     @PostMapping
     public ResponseEntity<ResponseDTO<Contato>> salvar(@RequestBody Contato contato) {
-        return criarResposta(() -> service.salvar(contato), "Contato cadastrado com sucesso!");
+        return criarResposta(() -> service.salvar(contato), ResponseDTO.MSG_CADASTRADO);
     }
 
     // Listar todos os contatos (retorna lista diretamente)
@@ -29,6 +39,28 @@ public class ContatoController {
         return service.listar();
     }
 
+    // Listagem paginada, ordenada no banco e com filtros combináveis:
+    // ?page=0&size=20&sort=nome,asc&ativo=true&favorito=true&comEmail=true&comTelefone=false
+    // Corpo é só a lista da página; o total (estimado) vai no header X-Total-Count
+    @GetMapping(params = {"page", "!tag"})
+    public ResponseEntity<List<Contato>> listarPaginado(@RequestParam(required = false) Boolean ativo,
+                                                        @RequestParam(required = false) Boolean favorito,
+                                                        @RequestParam(required = false) Boolean comEmail,
+                                                        @RequestParam(required = false) Boolean comTelefone,
+                                                        @PageableDefault(size = 20, sort = "nome") Pageable pageable) {
+        Page<Contato> pagina = service.listar(new ContatoFiltro(ativo, favorito, comEmail, comTelefone), pageable);
+        return ResponseEntity.ok()
+                .header(HEADER_TOTAL, String.valueOf(pagina.getTotalElements()))
+                .body(pagina.getContent());
+    }
+
+    // Contatos de uma tag, paginados (?tag=vendas&page=0&size=20)
+    @GetMapping(params = "tag")
+    public PagedModel<Contato> listarPorTag(@RequestParam String tag,
+                                            @PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        return new PagedModel<>(service.listarPorTag(tag, pageable));
+    }
+
     // Total de contatos (retorna número diretamente)
     @GetMapping("/total")
     public long totalContatos() {
@@ -51,6 +83,12 @@ public class ContatoController {
         return ResponseEntity.ok(total);
     }
 
+    // Total de contatos de uma tag (lido do contador da tag)
+    @GetMapping("/totalPorTag")
+    public long totalPorTag(@RequestParam String tag) {
+        return service.totalPorTag(tag);
+    }
+
     // Contatos favoritos (retorna lista diretamente)
     @GetMapping("/favoritos")
     public List<Contato> listarFavoritos() {
@@ -63,76 +101,65 @@ public class ContatoController {
         return service.listarInativos();
     }
 
+    // Inativos paginados, incluindo os arquivados (?page=0&size=20), sempre em ordem de ID
+    @GetMapping(path = "/inativos", params = "page")
+    public PagedModel<ContatoInativoDTO> listarInativosPaginado(@PageableDefault(size = 20) Pageable pageable) {
+        return new PagedModel<>(service.listarInativos(pageable));
+    }
+
     // Buscar contato por ID (retorna objeto diretamente)
     @GetMapping("/{id}")
     public ResponseEntity<ResponseDTO<Contato>> buscarPorID(@PathVariable Long id) {
         return criarResposta(() -> service.buscarPorId(id)
-                        .orElseThrow(() -> new IllegalArgumentException("Contato não encontrado com ID: " + id)),
-                "Contato encontrado com sucesso!");
+                        .orElseThrow(() -> new ContatoNaoEncontradoException(id)),
+                ResponseDTO.MSG_ENCONTRADO);
     }
 
     // Atualizar contato
     @PutMapping("/{id}")
     public ResponseEntity<ResponseDTO<Contato>> atualizar(@PathVariable Long id, @RequestBody Contato contato) {
-        return criarResposta(() -> service.atualizar(id, contato), "Contato atualizado com sucesso!");
+        return criarResposta(() -> service.atualizar(id, contato), ResponseDTO.MSG_ATUALIZADO);
     }
 
     // Inativar contato
     @PatchMapping("/{id}/inativar")
     public ResponseEntity<ResponseDTO<Void>> inativar(@PathVariable Long id) {
-        return criarResposta(() -> {
-            service.inativar(id);
-            return null;
-        }, "Contato inativado com sucesso!");
+        return criarResposta(() -> service.inativar(id), ResponseDTO.INATIVADO);
     }
 
     @PatchMapping("/{id}/ativar")
     public ResponseEntity<ResponseDTO<Void>> ativar(@PathVariable Long id) {
-        return criarResposta(() -> {
-            service.ativar(id);
-            return null;
-        }, "Contato ativado com sucesso!");
+        return criarResposta(() -> service.ativar(id), ResponseDTO.ATIVADO);
     }
 
 
     @PatchMapping("/{id}/favoritar")
     public ResponseEntity<ResponseDTO<Contato>> favoritarContato(@PathVariable Long id) {
-        return criarResposta(() -> service.favoritar(id), "Contato marcado como favorito com sucesso!");
+        return criarResposta(() -> service.favoritar(id), ResponseDTO.MSG_FAVORITADO);
     }
 
     @PatchMapping("/{id}/desfavoritar")
     public ResponseEntity<ResponseDTO<Contato>> desfavoritarContato(@PathVariable Long id) {
-        return criarResposta(() -> service.desfavoritar(id), "Contato removido dos favoritos com sucesso!");
+        return criarResposta(() -> service.desfavoritar(id), ResponseDTO.MSG_DESFAVORITADO);
     }
 
 
     // Deletar contato
     @DeleteMapping("/{id}")
     public ResponseEntity<ResponseDTO<Void>> deletarContato(@PathVariable Long id) {
-        return criarResposta(() -> {
-            service.deletarPorId(id);
-            return null;
-        }, "Contato deletado com sucesso!");
+        return criarResposta(() -> service.deletarPorId(id), ResponseDTO.DELETADO);
     }
 
     //Método utilitário para padronizar respostas
-    private <T> ResponseEntity<ResponseDTO<T>> criarResposta(ServiceCall<T> call, String mensagemSucesso) {
-        try {
-            T resultado = call.executar();
-            ResponseDTO<T> response = new ResponseDTO<>("success", mensagemSucesso, resultado);
-            return ResponseEntity.ok(response);
-        } catch (IllegalArgumentException e) {
-            ResponseDTO<T> response = new ResponseDTO<>("error", e.getMessage(), null);
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
-        } catch (Exception e) {
-            ResponseDTO<T> response = new ResponseDTO<>("error", "Erro inesperado: " + e.getMessage(), null);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
-        }
-    }
-
-    @FunctionalInterface
-    private interface ServiceCall<T> {
-        T executar() throws Exception;
+    // Erros (não encontrado, duplicado, inválido) são tratados no ApiExceptionHandler
+    private <T> ResponseEntity<ResponseDTO<T>> criarResposta(Supplier<T> call, String mensagemSucesso) {
+        return ResponseEntity.ok(ResponseDTO.sucesso(mensagemSucesso, call.get()));
+    }
+
+    // Variante para operações sem retorno: reaproveita o envelope constante de sucesso
+    private ResponseEntity<ResponseDTO<Void>> criarResposta(Runnable call, ResponseDTO<Void> respostaSucesso) {
+        call.run();
+        return ResponseEntity.ok(respostaSucesso);
     }
 }
 
@@ -0,0 +1,57 @@
+package com.desafio.agenda_telefonica.controller;
+
+import com.desafio.agenda_telefonica.service.AuditoriaService;
+import com.desafio.agenda_telefonica.tenant.TenantContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Instant;
+
+// Histórico de alterações dos contatos, em NDJSON (um evento JSON por linha) e escrito aos poucos
+@RestController
+@Profile("!edge")
+@RequestMapping("/api/contatos")
+public class ContatoHistoricoController {
+
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    @Autowired
+    private AuditoriaService auditoria;
+
+    // Histórico de um contato (continua disponível depois de deletado)
+    @GetMapping("/{id}/history")
+    public ResponseEntity<StreamingResponseBody> historico(@PathVariable Long id) {
+        return stream(saida -> auditoria.exportarHistorico(id, saida));
+    }
+
+    // Exportação por período: ?de=2025-01-01T00:00:00Z&ate=2025-02-01T00:00:00Z
+    @GetMapping("/history")
+    public ResponseEntity<StreamingResponseBody> exportar(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant de,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant ate) {
+        if (!de.isBefore(ate)) {
+            throw new IllegalArgumentException("Período inválido: 'de' deve ser anterior a 'ate'");
+        }
+        return stream(saida -> auditoria.exportarPeriodo(de, ate, saida));
+    }
+
+    // O corpo é escrito em outra thread: leva junto o tenant da requisição
+    private static ResponseEntity<StreamingResponseBody> stream(StreamingResponseBody corpo) {
+        String tenantId = TenantContext.getTenantId();
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .body(saida -> {
+                    TenantContext.setTenantId(tenantId);
+                    try {
+                        corpo.writeTo(saida);
+                    } finally {
+                        TenantContext.limpar();
+                    }
+                });
+    }
+}
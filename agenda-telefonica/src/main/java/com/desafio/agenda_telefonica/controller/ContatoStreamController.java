@@ -0,0 +1,28 @@
+package com.desafio.agenda_telefonica.controller;
+
+import com.desafio.agenda_telefonica.service.ContatoStreamService;
+import com.desafio.agenda_telefonica.tenant.TenantContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+// Alterações de contatos em tempo real (Server-Sent Events), para o frontend parar de fazer polling.
+// Eventos "contato": {"tipo": "CRIADO", "contatoId": 1, "ocorridoEm": "...", "alteracoes": {...}};
+// "recarregar": o cliente perdeu eventos demais e deve buscar a lista de novo.
+@RestController
+@RequestMapping("/api/contatos")
+public class ContatoStreamController {
+
+    @Autowired
+    private ContatoStreamService service;
+
+    // O EventSource do navegador reenvia o último id recebido no header Last-Event-ID ao reconectar
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(name = "Last-Event-ID", required = false) String ultimoEventoId) {
+        return service.assinar(TenantContext.getTenantId(), ultimoEventoId);
+    }
+}
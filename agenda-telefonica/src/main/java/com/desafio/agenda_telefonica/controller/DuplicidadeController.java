@@ -0,0 +1,50 @@
+package com.desafio.agenda_telefonica.controller;
+
+import com.desafio.agenda_telefonica.dto.MesclagemDTO;
+import com.desafio.agenda_telefonica.dto.ResponseDTO;
+import com.desafio.agenda_telefonica.model.Contato;
+import com.desafio.agenda_telefonica.model.ContatoDuplicidade;
+import com.desafio.agenda_telefonica.service.DeduplicacaoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.PagedModel;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@Profile("!edge")
+@RequestMapping("/api/contatos/duplicados")
+public class DuplicidadeController {
+
+    @Autowired
+    private DeduplicacaoService service;
+
+    // Dispara a detecção em segundo plano (202); o resultado aparece no GET quando terminar
+    @PostMapping("/detectar")
+    public ResponseEntity<ResponseDTO<Void>> detectar() {
+        if (!service.iniciarDeteccao()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ResponseDTO.erro(ResponseDTO.MSG_DEDUPLICACAO_EM_ANDAMENTO));
+        }
+        return ResponseEntity.accepted().body(ResponseDTO.sucesso(ResponseDTO.MSG_DEDUPLICACAO_INICIADA, null));
+    }
+
+    // Pares para revisão, do mais provável para o menos
+    @GetMapping
+    public PagedModel<ContatoDuplicidade> listar(
+            @PageableDefault(size = 50, sort = "pontuacao", direction = Sort.Direction.DESC) Pageable pageable) {
+        return new PagedModel<>(service.listar(pageable));
+    }
+
+    // Mescla os grupos revisados: [{"principal": 1, "duplicados": [7, 9]}, ...]
+    @PostMapping("/mesclar")
+    public ResponseEntity<ResponseDTO<List<Contato>>> mesclar(@RequestBody List<MesclagemDTO> grupos) {
+        return ResponseEntity.ok(ResponseDTO.sucesso(ResponseDTO.MSG_MESCLADOS, service.mesclar(grupos)));
+    }
+}
@@ -0,0 +1,5 @@
+package com.desafio.agenda_telefonica.deduplicacao;
+
+// Forma compacta de um contato durante a deduplicação: só o que entra na comparação, já normalizado
+public record Candidato(long id, String nome, String email, String[] numeros) {
+}
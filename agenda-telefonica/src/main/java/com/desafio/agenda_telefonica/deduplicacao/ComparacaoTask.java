@@ -0,0 +1,114 @@
+package com.desafio.agenda_telefonica.deduplicacao;
+
+import com.desafio.agenda_telefonica.util.NomeUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+// Compara os pares de cada bloco (contatos que dividem telefone, e-mail ou chave fonética do nome).
+// Divide a lista de blocos ao meio até sobrar pouco trabalho e deixa o ForkJoinPool distribuir as metades.
+public class ComparacaoTask extends RecursiveTask<List<ParDuplicado>> {
+
+    // Pesos da pontuação (soma limitada a 1): com o limite padrão de 0,55, nome quase idêntico basta sozinho,
+    // e-mail ou telefone em comum só contam junto com algo mais
+    static final double PESO_TELEFONE = 0.5;
+    static final double PESO_EMAIL = 0.4;
+    static final double PESO_NOME = 0.6;
+
+    // Abaixo disso a tarefa roda direto, sem dividir
+    private static final int PARES_POR_TAREFA = 20_000;
+
+    private final List<Candidato> candidatos;
+    private final List<int[]> blocos;
+    private final int inicio;
+    private final int fim;
+    private final double limite;
+
+    public ComparacaoTask(List<Candidato> candidatos, List<int[]> blocos, double limite) {
+        this(candidatos, blocos, 0, blocos.size(), limite);
+    }
+
+    private ComparacaoTask(List<Candidato> candidatos, List<int[]> blocos, int inicio, int fim, double limite) {
+        this.candidatos = candidatos;
+        this.blocos = blocos;
+        this.inicio = inicio;
+        this.fim = fim;
+        this.limite = limite;
+    }
+
+    @Override
+    protected List<ParDuplicado> compute() {
+        if (fim - inicio > 1 && pares() > PARES_POR_TAREFA) {
+            int meio = (inicio + fim) >>> 1;
+            ComparacaoTask esquerda = new ComparacaoTask(candidatos, blocos, inicio, meio, limite);
+            ComparacaoTask direita = new ComparacaoTask(candidatos, blocos, meio, fim, limite);
+            esquerda.fork();
+            List<ParDuplicado> resultado = new ArrayList<>(direita.compute());
+            resultado.addAll(esquerda.join());
+            return resultado;
+        }
+
+        List<ParDuplicado> resultado = new ArrayList<>();
+        for (int b = inicio; b < fim; b++) {
+            int[] bloco = blocos.get(b);
+            for (int i = 0; i < bloco.length; i++) {
+                for (int j = i + 1; j < bloco.length; j++) {
+                    ParDuplicado par = comparar(candidatos.get(bloco[i]), candidatos.get(bloco[j]), limite);
+                    if (par != null) {
+                        resultado.add(par);
+                    }
+                }
+            }
+        }
+        return resultado;
+    }
+
+    private long pares() {
+        long total = 0;
+        for (int b = inicio; b < fim; b++) {
+            long n = blocos.get(b).length;
+            total += n * (n - 1) / 2;
+        }
+        return total;
+    }
+
+    // null quando a pontuação fica abaixo do limite
+    static ParDuplicado comparar(Candidato a, Candidato b, double limite) {
+        if (a.id() > b.id()) {
+            Candidato troca = a;
+            a = b;
+            b = troca;
+        }
+
+        StringBuilder motivos = new StringBuilder();
+        double pontuacao = 0;
+        if (temNumeroEmComum(a.numeros(), b.numeros())) {
+            pontuacao += PESO_TELEFONE;
+            motivos.append("telefone");
+        }
+        if (a.email() != null && a.email().equals(b.email())) {
+            pontuacao += PESO_EMAIL;
+            motivos.append(motivos.isEmpty() ? "" : ",").append("email");
+        }
+        double nome = NomeUtils.similaridade(a.nome(), b.nome());
+        pontuacao += PESO_NOME * nome;
+        if (nome >= 0.9) {
+            motivos.append(motivos.isEmpty() ? "" : ",").append("nome");
+        }
+
+        pontuacao = Math.min(1, pontuacao);
+        return pontuacao < limite ? null : new ParDuplicado(a.id(), b.id(), Math.round(pontuacao * 1000) / 1000.0, motivos.toString());
+    }
+
+    private static boolean temNumeroEmComum(String[] a, String[] b) {
+        for (String x : a) {
+            for (String y : b) {
+                if (x.equals(y)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
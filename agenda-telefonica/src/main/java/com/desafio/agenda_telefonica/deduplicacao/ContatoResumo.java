@@ -0,0 +1,5 @@
+package com.desafio.agenda_telefonica.deduplicacao;
+
+// Projeção do contato lida pela deduplicação (não é entidade: não fica no contexto de persistência)
+public record ContatoResumo(Long id, String nome, String email) {
+}
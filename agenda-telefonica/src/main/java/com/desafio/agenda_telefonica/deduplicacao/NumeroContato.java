@@ -0,0 +1,5 @@
+package com.desafio.agenda_telefonica.deduplicacao;
+
+// Projeção de contato_telefone: dono e número normalizado
+public record NumeroContato(Long contatoId, String numero) {
+}
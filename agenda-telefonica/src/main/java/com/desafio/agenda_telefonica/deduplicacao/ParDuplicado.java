@@ -0,0 +1,6 @@
+package com.desafio.agenda_telefonica.deduplicacao;
+
+// Par de contatos provavelmente duplicados (contatoId < duplicadoId) com a pontuação (0 a 1)
+// e os motivos ("telefone", "email", "nome") separados por vírgula
+public record ParDuplicado(long contatoId, long duplicadoId, double pontuacao, String motivos) {
+}
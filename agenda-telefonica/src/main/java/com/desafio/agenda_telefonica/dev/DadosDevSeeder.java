@@ -0,0 +1,164 @@
+package com.desafio.agenda_telefonica.dev;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Gera contatos realistas no profile dev para teste de carga/profiling local (agenda.seed.quantidade=N).
+// Insere direto via JDBC em lotes (sem entidades nem eventos de auditoria); os telefones e as tags
+// são derivados com INSERT ... SELECT sobre o lote recém-inserido.
+@Component
+@Profile("dev")
+@Order(0)
+public class DadosDevSeeder implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DadosDevSeeder.class);
+
+    private static final String[] NOMES = {"Ana", "Bruno", "Carla", "Daniel", "Eduarda", "Felipe", "Gabriela",
+            "Henrique", "Isabela", "João", "Larissa", "Marcos", "Natália", "Otávio", "Patrícia", "Rafael",
+            "Sofia", "Thiago", "Vanessa", "Wagner"};
+
+    private static final String[] SOBRENOMES = {"Silva", "Santos", "Oliveira", "Souza", "Lima", "Pereira",
+            "Ferreira", "Costa", "Rodrigues", "Almeida", "Nascimento", "Carvalho", "Araújo", "Ribeiro", "Barbosa"};
+
+    private static final int[] DDDS = {11, 21, 31, 41, 51, 61, 71, 81, 85, 91};
+
+    private static final String[] REGIOES = {"sudeste", "sudeste", "sudeste", "sul", "sul", "centro-oeste",
+            "nordeste", "nordeste", "nordeste", "norte"};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${agenda.seed.quantidade:0}")
+    private int quantidade;
+
+    @Value("${agenda.seed.lote:5000}")
+    private int tamanhoLote;
+
+    @Value("${agenda.seed.tenant:default}")
+    private String tenantId;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (quantidade <= 0) {
+            return;
+        }
+
+        // Arquivados (contato_arquivo) contam como já gerados: o arquivamento tira as linhas de contato
+        long existentes = contar("contato") + contar("contato_arquivo");
+        if (existentes >= quantidade) {
+            log.info("Seed dev: tenant {} já tem {} contatos", tenantId, existentes);
+            return;
+        }
+
+        criarTags();
+
+        // Continua depois da maior sequência já gerada, e não do total: com contatos arquivados ou mesclados
+        // o total cai, e recomeçar por ele repetiria celulares (uk_contato_tenant_celular)
+        long proxima = ultimaSequencia() + 1;
+        long faltam = quantidade - existentes;
+        long inicio = System.currentTimeMillis();
+        Random random = new Random(42);
+        for (long gerados = 0; gerados < faltam; gerados += tamanhoLote) {
+            int tamanho = (int) Math.min(tamanhoLote, faltam - gerados);
+            long primeiro = proxima + gerados;
+            transactionTemplate.executeWithoutResult(status -> inserirLote(primeiro, tamanho, random));
+        }
+
+        jdbcTemplate.update("update tag set total_contatos = "
+                + "(select count(*) from contato_tag ct where ct.tag_id = tag.id) where tenant_id = ?", tenantId);
+
+        log.info("Seed dev: {} contatos gerados em {} ms", faltam, System.currentTimeMillis() - inicio);
+    }
+
+    private long contar(String tabela) {
+        return jdbcTemplate.queryForObject("select count(*) from " + tabela + " where tenant_id = ?", Long.class, tenantId);
+    }
+
+    // Sequência do celular gerado (DDD + 9 + sequência em 8 dígitos), ativos e arquivados; -1 se ainda não há.
+    // Outro celular no mesmo formato só faz a numeração pular adiante, nunca repetir
+    private long ultimaSequencia() {
+        return jdbcTemplate.queryForObject("select coalesce(max(cast(substring(celular, 4) as bigint)), -1) from ("
+                        + "select celular from contato where tenant_id = ? "
+                        + "union all select celular from contato_arquivo where tenant_id = ?) c "
+                        // 11 dígitos (cada dígito vira '#') com o 9 depois do DDD
+                        + "where translate(celular, '0123456789', '##########') = '###########' "
+                        + "and substring(celular, 3, 1) = '9'",
+                Long.class, tenantId, tenantId);
+    }
+
+    private void inserirLote(long primeiro, int tamanho, Random random) {
+        Long ultimoId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from contato", Long.class);
+
+        List<Object[]> linhas = new ArrayList<>(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            long sequencia = primeiro + i;
+            int ddd = DDDS[(int) (sequencia % DDDS.length)];
+            String nome = NOMES[random.nextInt(NOMES.length)];
+            String sobrenome = SOBRENOMES[random.nextInt(SOBRENOMES.length)];
+
+            // Celular único pela sequência; fixo e e-mail só para parte dos contatos
+            String celular = String.format("%d9%08d", ddd, sequencia);
+            String telefone = random.nextInt(100) < 30 ? String.format("%d3%07d", ddd, random.nextInt(10_000_000)) : null;
+            String email = random.nextInt(100) < 70
+                    ? semAcento(nome + "." + sobrenome + sequencia + "@exemplo.com.br").toLowerCase() : null;
+            boolean favorito = random.nextInt(100) < 10;
+            boolean ativo = random.nextInt(100) < 85;
+            // Inativos espalhados pelo último ano: parte já entra no prazo do arquivamento
+            Timestamp inativadoEm = ativo ? null
+                    : Timestamp.from(Instant.now().minus(Duration.ofDays(random.nextInt(365))));
+
+            linhas.add(new Object[]{tenantId, nome + " " + sobrenome, celular, telefone, email, favorito, ativo,
+                    inativadoEm});
+        }
+
+        jdbcTemplate.batchUpdate("insert into contato (tenant_id, nome, celular, telefone, email, favorito, ativo, "
+                + "inativado_em) values (?, ?, ?, ?, ?, ?, ?, ?)", linhas);
+
+        // Gerados só com dígitos, então número = número normalizado
+        jdbcTemplate.update("insert into contato_telefone (tenant_id, contato_id, tipo, numero, numero_normalizado, numero_unico) "
+                + "select tenant_id, id, 'CELULAR', celular, celular, celular from contato where id > ?", ultimoId);
+        jdbcTemplate.update("insert into contato_telefone (tenant_id, contato_id, tipo, numero, numero_normalizado) "
+                + "select tenant_id, id, 'FIXO', telefone, telefone from contato where id > ? and telefone is not null",
+                ultimoId);
+
+        // Região pelo DDD do celular (mesma ordem de DDDS/REGIOES)
+        for (int i = 0; i < DDDS.length; i++) {
+            jdbcTemplate.update("insert into contato_tag (contato_id, tag_id) "
+                            + "select c.id, t.id from contato c join tag t on t.nome = ? and t.tenant_id = c.tenant_id "
+                            + "where c.id > ? and c.celular like ?",
+                    REGIOES[i], ultimoId, DDDS[i] + "%");
+        }
+    }
+
+    private static String semAcento(String texto) {
+        return Normalizer.normalize(texto, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+    }
+
+    private void criarTags() {
+        for (String nome : List.of("sudeste", "sul", "centro-oeste", "nordeste", "norte")) {
+            jdbcTemplate.update("insert into tag (tenant_id, nome, total_contatos) "
+                    + "select ?, ?, 0 where not exists (select 1 from tag where tenant_id = ? and nome = ?)",
+                    tenantId, nome, tenantId, nome);
+        }
+    }
+}
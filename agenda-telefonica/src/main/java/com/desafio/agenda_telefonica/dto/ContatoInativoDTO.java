@@ -0,0 +1,27 @@
+package com.desafio.agenda_telefonica.dto;
+
+import com.desafio.agenda_telefonica.model.Contato;
+import com.desafio.agenda_telefonica.model.ContatoArquivo;
+
+import java.time.Instant;
+
+// Item da listagem paginada de inativos, que junta a tabela contato e o arquivo (arquivado = true)
+public record ContatoInativoDTO(Long id,
+                                String nome,
+                                String telefone,
+                                String celular,
+                                String email,
+                                boolean favorito,
+                                Instant inativadoEm,
+                                boolean arquivado) {
+
+    public static ContatoInativoDTO de(Contato contato) {
+        return new ContatoInativoDTO(contato.getId(), contato.getNome(), contato.getTelefone(), contato.getCelular(),
+                contato.getEmail(), contato.isFavorito(), contato.getInativadoEm(), false);
+    }
+
+    public static ContatoInativoDTO de(ContatoArquivo arquivo) {
+        return new ContatoInativoDTO(arquivo.getId(), arquivo.getNome(), arquivo.getTelefone(), arquivo.getCelular(),
+                arquivo.getEmail(), arquivo.isFavorito(), arquivo.getInativadoEm(), true);
+    }
+}
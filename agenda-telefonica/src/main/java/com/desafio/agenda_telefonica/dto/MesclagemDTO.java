@@ -0,0 +1,7 @@
+package com.desafio.agenda_telefonica.dto;
+
+import java.util.List;
+
+// Um grupo da mesclagem: o contato que fica e os duplicados que são incorporados a ele e removidos
+public record MesclagemDTO(Long principal, List<Long> duplicados) {
+}
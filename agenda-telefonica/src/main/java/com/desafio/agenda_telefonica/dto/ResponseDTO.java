@@ -1,39 +1,37 @@
 package com.desafio.agenda_telefonica.dto;
 
-public class ResponseDTO<T> {
-
-    private String status;
-    private String mensagem;
-    private T data;
-
-    public ResponseDTO(String status, String mensagem, T data) {
-        this.status = status;
-        this.mensagem = mensagem;
-        this.data = data;
-    }
-
-    // Getters e Setters
-    public String getStatus() {
-        return status;
-    }
-
-    public void setStatus(String status) {
-        this.status = status;
-    }
-
-    public String getMensagem() {
-        return mensagem;
-    }
-
-    public void setMensagem(String mensagem) {
-        this.mensagem = mensagem;
-    }
-
-    public T getData() {
-        return data;
+// Envelope imutável das respostas da API.
+// Mensagens fixas são constantes e as respostas sem dados são pré-construídas,
+// evitando alocar um DTO novo a cada PATCH/DELETE.
+public record ResponseDTO<T>(String status, String mensagem, T data) {
+
+    public static final String STATUS_SUCESSO = "success";
+    public static final String STATUS_ERRO = "error";
+
+    // Mensagens de sucesso
+    public static final String MSG_CADASTRADO = "Contato cadastrado com sucesso!";
+    public static final String MSG_ENCONTRADO = "Contato encontrado com sucesso!";
+    public static final String MSG_ATUALIZADO = "Contato atualizado com sucesso!";
+    public static final String MSG_INATIVADO = "Contato inativado com sucesso!";
+    public static final String MSG_ATIVADO = "Contato ativado com sucesso!";
+    public static final String MSG_FAVORITADO = "Contato marcado como favorito com sucesso!";
+    public static final String MSG_DESFAVORITADO = "Contato removido dos favoritos com sucesso!";
+    public static final String MSG_DELETADO = "Contato deletado com sucesso!";
+    public static final String MSG_MESCLADOS = "Contatos mesclados com sucesso!";
+    public static final String MSG_RESTAURADO = "Contato restaurado do arquivo com sucesso!";
+    public static final String MSG_DEDUPLICACAO_INICIADA = "Detecção de duplicados iniciada!";
+    public static final String MSG_DEDUPLICACAO_EM_ANDAMENTO = "Detecção de duplicados já está em andamento";
+
+    // Envelopes constantes (sem dados)
+    public static final ResponseDTO<Void> INATIVADO = new ResponseDTO<>(STATUS_SUCESSO, MSG_INATIVADO, null);
+    public static final ResponseDTO<Void> ATIVADO = new ResponseDTO<>(STATUS_SUCESSO, MSG_ATIVADO, null);
+    public static final ResponseDTO<Void> DELETADO = new ResponseDTO<>(STATUS_SUCESSO, MSG_DELETADO, null);
+
+    public static <T> ResponseDTO<T> sucesso(String mensagem, T data) {
+        return new ResponseDTO<>(STATUS_SUCESSO, mensagem, data);
     }
 
-    public void setData(T data) {
-        this.data = data;
+    public static <T> ResponseDTO<T> erro(String mensagem) {
+        return new ResponseDTO<>(STATUS_ERRO, mensagem, null);
     }
 }
@@ -0,0 +1,15 @@
+package com.desafio.agenda_telefonica.evento;
+
+import com.desafio.agenda_telefonica.model.TipoAlteracao;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+// Publicado pelo ContatoService em cada alteração, dentro da transação da operação
+public record ContatoAlteradoEvent(TipoAlteracao tipo,
+                                   Long contatoId,
+                                   String tenantId,
+                                   Instant ocorridoEm,
+                                   Map<String, List<Object>> alteracoes) {
+}
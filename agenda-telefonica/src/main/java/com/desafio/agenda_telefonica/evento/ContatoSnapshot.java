@@ -0,0 +1,54 @@
+package com.desafio.agenda_telefonica.evento;
+
+import com.desafio.agenda_telefonica.model.Contato;
+import com.desafio.agenda_telefonica.model.ContatoTelefone;
+import com.desafio.agenda_telefonica.model.Tag;
+
+import java.util.*;
+import java.util.function.Function;
+
+// Valores de um contato num instante, usados para calcular o que mudou numa operação
+public record ContatoSnapshot(String nome,
+                              String telefone,
+                              String celular,
+                              String email,
+                              boolean favorito,
+                              boolean ativo,
+                              List<String> telefones,
+                              List<String> tags) {
+
+    public static ContatoSnapshot de(Contato contato) {
+        List<String> telefones = contato.getTelefones() == null ? List.of() : contato.getTelefones().stream()
+                .map(t -> t.getTipo() + ":" + t.getNumero())
+                .toList();
+        List<String> tags = contato.getTags() == null ? List.of() : contato.getTags().stream()
+                .map(Tag::getNome)
+                .sorted()
+                .toList();
+        return new ContatoSnapshot(contato.getNome(), contato.getTelefone(), contato.getCelular(), contato.getEmail(),
+                contato.isFavorito(), contato.isAtivo(), telefones, tags);
+    }
+
+    // Só os campos que mudaram: {"nome": ["antigo", "novo"], ...}. null de um lado = contato criado/removido.
+    public static Map<String, List<Object>> diferencas(ContatoSnapshot antes, ContatoSnapshot depois) {
+        Map<String, List<Object>> diff = new LinkedHashMap<>();
+        comparar(diff, "nome", antes, depois, ContatoSnapshot::nome);
+        comparar(diff, "telefone", antes, depois, ContatoSnapshot::telefone);
+        comparar(diff, "celular", antes, depois, ContatoSnapshot::celular);
+        comparar(diff, "email", antes, depois, ContatoSnapshot::email);
+        comparar(diff, "favorito", antes, depois, ContatoSnapshot::favorito);
+        comparar(diff, "ativo", antes, depois, ContatoSnapshot::ativo);
+        comparar(diff, "telefones", antes, depois, ContatoSnapshot::telefones);
+        comparar(diff, "tags", antes, depois, ContatoSnapshot::tags);
+        return diff;
+    }
+
+    private static void comparar(Map<String, List<Object>> diff, String campo, ContatoSnapshot antes,
+                                 ContatoSnapshot depois, Function<ContatoSnapshot, Object> valor) {
+        Object de = antes == null ? null : valor.apply(antes);
+        Object para = depois == null ? null : valor.apply(depois);
+        if (!Objects.equals(de, para)) {
+            diff.put(campo, Arrays.asList(de, para));
+        }
+    }
+}
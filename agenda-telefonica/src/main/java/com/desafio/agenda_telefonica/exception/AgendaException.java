@@ -0,0 +1,11 @@
+package com.desafio.agenda_telefonica.exception;
+
+// Base das exceções de negócio da agenda.
+// São resultados esperados (contato inexistente, celular repetido), então não capturam stack trace:
+// um "miss" custa só a alocação do objeto, sem percorrer a pilha.
+public abstract class AgendaException extends RuntimeException {
+
+    protected AgendaException(String mensagem) {
+        super(mensagem, null, false, false);
+    }
+}
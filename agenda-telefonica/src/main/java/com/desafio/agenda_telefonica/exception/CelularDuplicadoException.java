@@ -0,0 +1,10 @@
+package com.desafio.agenda_telefonica.exception;
+
+public class CelularDuplicadoException extends AgendaException {
+
+    public static final String MENSAGEM = "Celular já cadastrado!";
+
+    public CelularDuplicadoException() {
+        super(MENSAGEM);
+    }
+}
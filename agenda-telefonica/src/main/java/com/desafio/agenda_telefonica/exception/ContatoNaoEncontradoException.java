@@ -0,0 +1,21 @@
+package com.desafio.agenda_telefonica.exception;
+
+public class ContatoNaoEncontradoException extends AgendaException {
+
+    private final Long id;
+
+    public ContatoNaoEncontradoException(Long id) {
+        super(null);
+        this.id = id;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    // Mensagem montada só quando alguém realmente lê (ex.: no corpo da resposta 404)
+    @Override
+    public String getMessage() {
+        return "Contato não encontrado com ID: " + id;
+    }
+}
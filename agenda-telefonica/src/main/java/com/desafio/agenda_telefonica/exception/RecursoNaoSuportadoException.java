@@ -0,0 +1,9 @@
+package com.desafio.agenda_telefonica.exception;
+
+// Recurso que o armazenamento em uso não oferece (ex.: tags no armazenamento embarcado do profile edge)
+public class RecursoNaoSuportadoException extends AgendaException {
+
+    public RecursoNaoSuportadoException(String mensagem) {
+        super(mensagem);
+    }
+}
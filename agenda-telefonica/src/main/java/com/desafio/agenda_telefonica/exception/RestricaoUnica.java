@@ -0,0 +1,38 @@
+package com.desafio.agenda_telefonica.exception;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
+
+// Constraints unique com tratamento próprio, reconhecidas pelo nome na violação.
+// O nome aparece na mensagem do driver (PostgreSQL: "... unique constraint \"uk_...\"", H2: "UK_..._INDEX_n")
+// e na do armazenamento embarcado; qualquer outra violação segue como erro de integridade genérico.
+public enum RestricaoUnica {
+
+    CELULAR("uk_contato_tenant_celular", "uk_contato_telefone_celular"),
+
+    // Duas requisições criando a mesma tag nova ao mesmo tempo (TagService.resolver)
+    TAG("uk_tag_tenant_nome");
+
+    private final String[] nomes;
+
+    RestricaoUnica(String... nomes) {
+        this.nomes = nomes;
+    }
+
+    public static Optional<RestricaoUnica> violada(Throwable erro) {
+        for (Throwable causa = erro; causa != null; causa = causa.getCause() == causa ? null : causa.getCause()) {
+            String mensagem = causa.getMessage();
+            if (mensagem == null) {
+                continue;
+            }
+            String texto = mensagem.toLowerCase(Locale.ROOT);
+            for (RestricaoUnica restricao : values()) {
+                if (Arrays.stream(restricao.nomes).anyMatch(texto::contains)) {
+                    return Optional.of(restricao);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,54 @@
+package com.desafio.agenda_telefonica.json;
+
+import com.desafio.agenda_telefonica.model.Contato;
+import com.desafio.agenda_telefonica.model.ContatoTelefone;
+import com.desafio.agenda_telefonica.model.Tag;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+
+// Serializa Contato escrevendo os campos direto no gerador (sem introspecção/reflexão do Jackson)
+@JsonComponent
+public class ContatoSerializer extends StdSerializer<Contato> {
+
+    public ContatoSerializer() {
+        super(Contato.class);
+    }
+
+    @Override
+    public void serialize(Contato contato, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject();
+        if (contato.getId() == null) {
+            gen.writeNullField("id");
+        } else {
+            gen.writeNumberField("id", contato.getId());
+        }
+        gen.writeStringField("nome", contato.getNome());
+        gen.writeStringField("telefone", contato.getTelefone());
+        gen.writeStringField("celular", contato.getCelular());
+        gen.writeStringField("email", contato.getEmail());
+        gen.writeBooleanField("favorito", contato.isFavorito());
+        gen.writeBooleanField("ativo", contato.isAtivo());
+        gen.writeArrayFieldStart("telefones");
+        if (contato.getTelefones() != null) {
+            for (ContatoTelefone telefone : contato.getTelefones()) {
+                gen.writeStartObject();
+                gen.writeStringField("tipo", telefone.getTipo() == null ? null : telefone.getTipo().name());
+                gen.writeStringField("numero", telefone.getNumero());
+                gen.writeEndObject();
+            }
+        }
+        gen.writeEndArray();
+        gen.writeArrayFieldStart("tags");
+        if (contato.getTags() != null) {
+            for (Tag tag : contato.getTags()) {
+                gen.writeString(tag.getNome());
+            }
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
+    }
+}
@@ -0,0 +1,31 @@
+package com.desafio.agenda_telefonica.json;
+
+import com.desafio.agenda_telefonica.dto.ResponseDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+
+// Serializa o envelope de resposta sem reflexão; o campo "data" usa o serializer do tipo (ex.: ContatoSerializer)
+@JsonComponent
+public class ResponseDTOSerializer extends StdSerializer<ResponseDTO<?>> {
+
+    public ResponseDTOSerializer() {
+        super(ResponseDTO.class, false);
+    }
+
+    @Override
+    public void serialize(ResponseDTO<?> response, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("status", response.status());
+        gen.writeStringField("mensagem", response.mensagem());
+        if (response.data() == null) {
+            gen.writeNullField("data");
+        } else {
+            provider.defaultSerializeField("data", response.data(), gen);
+        }
+        gen.writeEndObject();
+    }
+}
@@ -0,0 +1,102 @@
+package com.desafio.agenda_telefonica.migracao;
+
+import com.desafio.agenda_telefonica.model.Contato;
+import com.desafio.agenda_telefonica.model.ContatoTelefone;
+import com.desafio.agenda_telefonica.model.TipoTelefone;
+import com.desafio.agenda_telefonica.repository.ContatoRepository;
+import com.desafio.agenda_telefonica.repository.ContatoTelefoneRepository;
+import com.desafio.agenda_telefonica.util.TelefoneUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+// Migra os contatos antigos (celular/telefone só nas colunas de contato) para a tabela contato_telefone.
+// Roda na subida, em lotes por faixa de ID; é idempotente, então depois de migrado custa só uma consulta vazia.
+// Desligar com agenda.migracao.telefones=false.
+@Component
+@Profile("!edge")
+@ConditionalOnProperty(name = "agenda.migracao.telefones", havingValue = "true", matchIfMissing = true)
+public class TelefonesMigracao implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(TelefonesMigracao.class);
+
+    @Autowired
+    private ContatoRepository contatoRepository;
+
+    @Autowired
+    private ContatoTelefoneRepository telefoneRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${agenda.migracao.telefones.lote:500}")
+    private int tamanhoLote;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long ultimoId = 0;
+        long migrados = 0;
+        while (true) {
+            final long inicio = ultimoId;
+            List<Contato> lote = transactionTemplate.execute(status -> migrarLote(inicio));
+            if (lote.isEmpty()) {
+                break;
+            }
+            migrados += lote.size();
+            ultimoId = lote.get(lote.size() - 1).getId();
+        }
+
+        if (migrados > 0) {
+            log.info("Telefones migrados para contato_telefone: {} contatos", migrados);
+        }
+    }
+
+    private List<Contato> migrarLote(long ultimoId) {
+        List<Contato> contatos = contatoRepository.findSemTelefones(ultimoId, PageRequest.of(0, tamanhoLote));
+
+        // Celulares que só diferiam na formatação ("81 99999-9999" x "81999999999") passavam pela unique antiga;
+        // o segundo vira OUTRO para não violar a unique nova e fica para a deduplicação
+        List<String> celulares = contatos.stream()
+                .map(c -> TelefoneUtils.normalizar(c.getCelular()))
+                .filter(Objects::nonNull)
+                .toList();
+        Set<String> celularesEmUso = celulares.isEmpty()
+                ? new HashSet<>()
+                : new HashSet<>(telefoneRepository.findCelularesCadastrados(celulares));
+
+        List<ContatoTelefone> telefones = new ArrayList<>(contatos.size() * 2);
+        for (Contato contato : contatos) {
+            String celular = TelefoneUtils.normalizar(contato.getCelular());
+            if (celular != null) {
+                TipoTelefone tipo = celularesEmUso.add(celular) ? TipoTelefone.CELULAR : TipoTelefone.OUTRO;
+                if (tipo == TipoTelefone.OUTRO) {
+                    log.warn("Contato {}: celular {} já pertence a outro contato, migrado como OUTRO", contato.getId(), celular);
+                }
+                telefones.add(novoTelefone(contato, tipo, contato.getCelular()));
+            }
+
+            String telefone = TelefoneUtils.normalizar(contato.getTelefone());
+            if (telefone != null && !telefone.equals(celular)) {
+                telefones.add(novoTelefone(contato, TipoTelefone.FIXO, contato.getTelefone()));
+            }
+        }
+        telefoneRepository.saveAll(telefones);
+        return contatos;
+    }
+
+    private static ContatoTelefone novoTelefone(Contato contato, TipoTelefone tipo, String numero) {
+        ContatoTelefone telefone = new ContatoTelefone(tipo, numero);
+        telefone.setContato(contato);
+        return telefone;
+    }
+}
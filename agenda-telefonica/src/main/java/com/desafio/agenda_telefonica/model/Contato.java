@@ -1,9 +1,27 @@
 package com.desafio.agenda_telefonica.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
 
 @Entity
-@Table(name= "contato")
+@Table(name= "contato",
+        uniqueConstraints = @UniqueConstraint(name = "uk_contato_tenant_celular", columnNames = {"tenant_id", "celular"}),
+        indexes = {
+                @Index(name = "idx_contato_tenant_inativado_em", columnList = "tenant_id, inativado_em"),
+                // Listagem ordenada (ContatoListagemRepository): filtro de ativo (e favorito) + ORDER BY nome/email, id
+                // lidos em ordem do índice, sem sort; "comEmail" vira faixa (email is [not] null) no de e-mail.
+                // O de favorito também atende os totais de ativos/favoritos (prefixo tenant_id, ativo, favorito).
+                // "comTelefone" e "comEmail" ordenado por nome ficam como filtro residual sobre a leitura em ordem:
+                // custam linhas a mais só quando o filtro é raro, e não valem mais um índice em cada gravação
+                @Index(name = "idx_contato_tenant_ativo_nome", columnList = "tenant_id, ativo, nome, id"),
+                @Index(name = "idx_contato_tenant_ativo_favorito_nome", columnList = "tenant_id, ativo, favorito, nome, id"),
+                @Index(name = "idx_contato_tenant_ativo_email", columnList = "tenant_id, ativo, email, id")
+        })
 
 public class Contato {
 
@@ -11,12 +29,19 @@ public class Contato {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Preenchido pelo Hibernate com o tenant atual; todas as consultas filtram por ele
+    @TenantId
+    @ColumnDefault("'default'")
+    @Column(name = "tenant_id", nullable = false, length = 40, updatable = false)
+    private String tenantId;
+
     @Column(nullable = false)
     private String nome;
 
     private String telefone;
 
-    @Column(nullable = false, unique = true)
+    // Único por tenant (uk_contato_tenant_celular)
+    @Column(nullable = false)
     private String celular;
 
     private String email;
@@ -25,6 +50,24 @@ public class Contato {
 
     private boolean ativo;
 
+    // Quando foi inativado (null se ativo); o arquivamento usa para mover os inativos antigos para contato_arquivo
+    @Column(name = "inativado_em")
+    private Instant inativadoEm;
+
+    // null = não informado na requisição (mantém as tags atuais no PUT)
+    // Carregadas em lote (hibernate.default_batch_fetch_size) para a listagem não virar N+1
+    @ManyToMany
+    @JoinTable(name = "contato_tag",
+            joinColumns = @JoinColumn(name = "contato_id"),
+            inverseJoinColumns = @JoinColumn(name = "tag_id"),
+            indexes = @Index(name = "idx_contato_tag_tag_contato", columnList = "tag_id, contato_id"))
+    private Set<Tag> tags;
+
+    // Todos os números do contato (inclui o celular e o telefone principais), mantidos pelo ContatoService.
+    // null = não informado na requisição (mantém os números adicionais no PUT). Também carregados em lote
+    @OneToMany(mappedBy = "contato", cascade = CascadeType.ALL, orphanRemoval = true)
+    private List<ContatoTelefone> telefones;
+
     public Long getId() {
         return id;
     }
@@ -33,6 +76,10 @@ public class Contato {
         this.id = id;
     }
 
+    public String getTenantId() {
+        return tenantId;
+    }
+
     public String getNome() {
         return nome;
     }
@@ -80,4 +127,28 @@ public class Contato {
     public void setAtivo(boolean ativo) {
         this.ativo = ativo;
     }
+
+    public Instant getInativadoEm() {
+        return inativadoEm;
+    }
+
+    public void setInativadoEm(Instant inativadoEm) {
+        this.inativadoEm = inativadoEm;
+    }
+
+    public Set<Tag> getTags() {
+        return tags;
+    }
+
+    public void setTags(Set<Tag> tags) {
+        this.tags = tags;
+    }
+
+    public List<ContatoTelefone> getTelefones() {
+        return telefones;
+    }
+
+    public void setTelefones(List<ContatoTelefone> telefones) {
+        this.telefones = telefones;
+    }
 }
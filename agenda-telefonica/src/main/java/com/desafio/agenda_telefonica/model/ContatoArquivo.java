@@ -0,0 +1,98 @@
+package com.desafio.agenda_telefonica.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+// Contato inativo há muito tempo, movido da tabela contato pelo ArquivamentoService.
+// Mantém o ID original (o histórico em contato_evento continua valendo). Telefones e tags ficam em tabelas
+// filhas (contato_arquivo_telefone, contato_arquivo_tag), linha a linha como no contato, sem depender de separadores.
+@Entity
+@Table(name = "contato_arquivo",
+        indexes = @Index(name = "idx_contato_arquivo_tenant", columnList = "tenant_id, id"))
+public class ContatoArquivo {
+
+    @Id
+    private Long id;
+
+    @TenantId
+    @ColumnDefault("'default'")
+    @Column(name = "tenant_id", nullable = false, length = 40, updatable = false)
+    private String tenantId;
+
+    @Column(nullable = false)
+    private String nome;
+
+    private String telefone;
+
+    @Column(nullable = false)
+    private String celular;
+
+    private String email;
+
+    private boolean favorito;
+
+    @Column(name = "inativado_em")
+    private Instant inativadoEm;
+
+    @Column(name = "arquivado_em", nullable = false)
+    private Instant arquivadoEm;
+
+    // Lidos só na restauração
+    @ElementCollection
+    @CollectionTable(name = "contato_arquivo_telefone", joinColumns = @JoinColumn(name = "contato_id"))
+    private List<TelefoneArquivado> telefones;
+
+    // Nomes das tags: a restauração volta a resolver (ou criar) cada uma
+    @ElementCollection
+    @CollectionTable(name = "contato_arquivo_tag", joinColumns = @JoinColumn(name = "contato_id"))
+    @Column(name = "nome", nullable = false, length = 60)
+    private Set<String> tags;
+
+    protected ContatoArquivo() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public String getTelefone() {
+        return telefone;
+    }
+
+    public String getCelular() {
+        return celular;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public boolean isFavorito() {
+        return favorito;
+    }
+
+    public Instant getInativadoEm() {
+        return inativadoEm;
+    }
+
+    public Instant getArquivadoEm() {
+        return arquivadoEm;
+    }
+
+    public List<TelefoneArquivado> getTelefones() {
+        return telefones;
+    }
+
+    public Set<String> getTags() {
+        return tags;
+    }
+}
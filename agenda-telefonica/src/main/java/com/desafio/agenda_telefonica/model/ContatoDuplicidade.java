@@ -0,0 +1,79 @@
+package com.desafio.agenda_telefonica.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
+
+import java.time.Instant;
+
+// Par de contatos provavelmente duplicados, encontrado pela detecção e aguardando revisão.
+// Cada execução substitui os pares do tenant; a mesclagem remove os pares dos contatos envolvidos.
+@Entity
+@Table(name = "contato_duplicidade",
+        uniqueConstraints = @UniqueConstraint(name = "uk_contato_duplicidade_par",
+                columnNames = {"tenant_id", "contato_id", "duplicado_id"}),
+        indexes = @Index(name = "idx_contato_duplicidade_pontuacao", columnList = "tenant_id, pontuacao"))
+public class ContatoDuplicidade {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @TenantId
+    @ColumnDefault("'default'")
+    @Column(name = "tenant_id", nullable = false, length = 40, updatable = false)
+    private String tenantId;
+
+    // Sempre o menor ID do par
+    @Column(name = "contato_id", nullable = false)
+    private Long contatoId;
+
+    @Column(name = "duplicado_id", nullable = false)
+    private Long duplicadoId;
+
+    // 0 a 1
+    @Column(nullable = false)
+    private double pontuacao;
+
+    // "telefone,email,nome"
+    @Column(nullable = false, length = 40)
+    private String motivos;
+
+    @Column(name = "detectado_em", nullable = false)
+    private Instant detectadoEm;
+
+    protected ContatoDuplicidade() {
+    }
+
+    public ContatoDuplicidade(Long contatoId, Long duplicadoId, double pontuacao, String motivos, Instant detectadoEm) {
+        this.contatoId = contatoId;
+        this.duplicadoId = duplicadoId;
+        this.pontuacao = pontuacao;
+        this.motivos = motivos;
+        this.detectadoEm = detectadoEm;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getContatoId() {
+        return contatoId;
+    }
+
+    public Long getDuplicadoId() {
+        return duplicadoId;
+    }
+
+    public double getPontuacao() {
+        return pontuacao;
+    }
+
+    public String getMotivos() {
+        return motivos;
+    }
+
+    public Instant getDetectadoEm() {
+        return detectadoEm;
+    }
+}
@@ -0,0 +1,82 @@
+package com.desafio.agenda_telefonica.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.TenantId;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+
+// Histórico de alterações de contatos (append-only: só INSERT, nunca UPDATE).
+// contato_id não tem FK para o histórico sobreviver à exclusão do contato.
+@Entity
+@Table(name = "contato_evento",
+        indexes = {
+                @Index(name = "idx_contato_evento_contato", columnList = "tenant_id, contato_id, id"),
+                @Index(name = "idx_contato_evento_ocorrido", columnList = "ocorrido_em")
+        })
+public class ContatoEvento {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @TenantId
+    @ColumnDefault("'default'")
+    @Column(name = "tenant_id", nullable = false, length = 40, updatable = false)
+    private String tenantId;
+
+    @Column(name = "contato_id", nullable = false, updatable = false)
+    private Long contatoId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20, updatable = false)
+    private TipoAlteracao tipo;
+
+    @Column(length = 100, updatable = false)
+    private String usuario;
+
+    @Column(name = "ocorrido_em", nullable = false, updatable = false)
+    private Instant ocorridoEm;
+
+    // Diff em JSON: {"campo": [antes, depois]}
+    @JdbcTypeCode(SqlTypes.LONG32VARCHAR)
+    @Column(nullable = false, updatable = false)
+    private String alteracoes;
+
+    protected ContatoEvento() {
+    }
+
+    public ContatoEvento(Long contatoId, TipoAlteracao tipo, String usuario, Instant ocorridoEm, String alteracoes) {
+        this.contatoId = contatoId;
+        this.tipo = tipo;
+        this.usuario = usuario;
+        this.ocorridoEm = ocorridoEm;
+        this.alteracoes = alteracoes;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getContatoId() {
+        return contatoId;
+    }
+
+    public TipoAlteracao getTipo() {
+        return tipo;
+    }
+
+    public String getUsuario() {
+        return usuario;
+    }
+
+    public Instant getOcorridoEm() {
+        return ocorridoEm;
+    }
+
+    public String getAlteracoes() {
+        return alteracoes;
+    }
+}
@@ -0,0 +1,97 @@
+package com.desafio.agenda_telefonica.model;
+
+import com.desafio.agenda_telefonica.util.TelefoneUtils;
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
+
+// Telefone de um contato. O celular e o telefone principais do Contato também ficam aqui,
+// para que qualquer número seja encontrado por uma única busca indexada.
+@Entity
+@Table(name = "contato_telefone",
+        uniqueConstraints = @UniqueConstraint(name = "uk_contato_telefone_celular",
+                columnNames = {"tenant_id", "numero_unico"}),
+        indexes = {
+                @Index(name = "idx_contato_telefone_contato", columnList = "contato_id"),
+                @Index(name = "idx_contato_telefone_numero", columnList = "tenant_id, numero_normalizado")
+        })
+public class ContatoTelefone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Preenchido pelo Hibernate com o tenant atual; todas as consultas filtram por ele
+    @TenantId
+    @ColumnDefault("'default'")
+    @Column(name = "tenant_id", nullable = false, length = 40, updatable = false)
+    private String tenantId;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "contato_id", nullable = false)
+    private Contato contato;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TipoTelefone tipo;
+
+    // Como o usuário digitou
+    @Column(nullable = false, length = 30)
+    private String numero;
+
+    // Só dígitos, sem DDI
+    @Column(name = "numero_normalizado", nullable = false, length = 20)
+    private String numeroNormalizado;
+
+    // Preenchido só para celulares: a unique (por tenant) vale para celular, fixo pode ser compartilhado (ex.: PABX da empresa)
+    @Column(name = "numero_unico", length = 20)
+    private String numeroUnico;
+
+    public ContatoTelefone() {
+    }
+
+    public ContatoTelefone(TipoTelefone tipo, String numero) {
+        this.tipo = tipo;
+        this.numero = numero;
+        atualizarChaves();
+    }
+
+    private void atualizarChaves() {
+        numeroNormalizado = TelefoneUtils.normalizar(numero);
+        numeroUnico = tipo == TipoTelefone.CELULAR ? numeroNormalizado : null;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Contato getContato() {
+        return contato;
+    }
+
+    public void setContato(Contato contato) {
+        this.contato = contato;
+    }
+
+    public TipoTelefone getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(TipoTelefone tipo) {
+        this.tipo = tipo;
+        atualizarChaves();
+    }
+
+    public String getNumero() {
+        return numero;
+    }
+
+    public void setNumero(String numero) {
+        this.numero = numero;
+        atualizarChaves();
+    }
+
+    public String getNumeroNormalizado() {
+        return numeroNormalizado;
+    }
+}
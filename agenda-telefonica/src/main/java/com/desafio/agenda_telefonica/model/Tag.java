@@ -0,0 +1,74 @@
+package com.desafio.agenda_telefonica.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.TenantId;
+
+import java.util.Locale;
+import java.util.Objects;
+
+// Grupo/etiqueta de contatos (equipe, região, tipo de cliente...).
+// Também funciona como tabela de contadores: total_contatos é mantido pelo TagService
+// a cada associação/desassociação, então a contagem por tag não precisa de count(*).
+@Entity
+@Table(name = "tag",
+        uniqueConstraints = @UniqueConstraint(name = "uk_tag_tenant_nome", columnNames = {"tenant_id", "nome"}))
+public class Tag {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Preenchido pelo Hibernate com o tenant atual; todas as consultas filtram por ele
+    @TenantId
+    @ColumnDefault("'default'")
+    @Column(name = "tenant_id", nullable = false, length = 40, updatable = false)
+    private String tenantId;
+
+    @Column(nullable = false, length = 60)
+    private String nome;
+
+    @Column(name = "total_contatos", nullable = false)
+    private long totalContatos;
+
+    protected Tag() {
+    }
+
+    // No JSON a tag é só o nome: "tags": ["vendas", "nordeste"]
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public Tag(String nome) {
+        this.nome = normalizar(nome);
+    }
+
+    public static String normalizar(String nome) {
+        return nome == null ? null : nome.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    @JsonValue
+    public String getNome() {
+        return nome;
+    }
+
+    public long getTotalContatos() {
+        return totalContatos;
+    }
+
+    // Igualdade pelo nome normalizado (chave natural), para funcionar em Set antes e depois de persistir
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Tag tag)) return false;
+        return Objects.equals(nome, tag.nome);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(nome);
+    }
+}
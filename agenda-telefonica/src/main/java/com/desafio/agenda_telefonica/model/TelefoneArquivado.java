@@ -0,0 +1,26 @@
+package com.desafio.agenda_telefonica.model;
+
+import jakarta.persistence.*;
+
+// Telefone de um contato arquivado (contato_arquivo_telefone): só o que a restauração precisa para recriar o ContatoTelefone
+@Embeddable
+public class TelefoneArquivado {
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TipoTelefone tipo;
+
+    @Column(nullable = false, length = 30)
+    private String numero;
+
+    protected TelefoneArquivado() {
+    }
+
+    public TipoTelefone getTipo() {
+        return tipo;
+    }
+
+    public String getNumero() {
+        return numero;
+    }
+}
@@ -0,0 +1,14 @@
+package com.desafio.agenda_telefonica.model;
+
+public enum TipoAlteracao {
+    CRIADO,
+    ATUALIZADO,
+    ATIVADO,
+    INATIVADO,
+    FAVORITADO,
+    DESFAVORITADO,
+    REMOVIDO,
+    MESCLADO,
+    ARQUIVADO,
+    RESTAURADO
+}
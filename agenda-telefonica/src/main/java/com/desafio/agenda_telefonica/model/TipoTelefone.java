@@ -0,0 +1,8 @@
+package com.desafio.agenda_telefonica.model;
+
+public enum TipoTelefone {
+    CELULAR,
+    FIXO,
+    COMERCIAL,
+    OUTRO
+}
@@ -0,0 +1,121 @@
+package com.desafio.agenda_telefonica.monitoramento;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Mede cada comando SQL no JDBC, no lugar do spring.jpa.show-sql (que imprime tudo, formatado e de forma síncrona).
+// Conexões e statements são embrulhados em proxies: o tempo de cada execute* entra nas estatísticas da requisição
+// e só os comandos acima de agenda.sql.lento-ms vão para o log, com os parâmetros.
+public class DataSourceMonitorado extends DelegatingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(DataSourceMonitorado.class);
+
+    private static final Set<String> EXECUCOES = Set.of("execute", "executeQuery", "executeUpdate",
+            "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private static final Set<String> CRIACAO_STATEMENT = Set.of("createStatement", "prepareStatement", "prepareCall");
+
+    // Parâmetros longos (textos, JSON da auditoria) são cortados no log
+    private static final int TAMANHO_MAXIMO_PARAMETRO = 100;
+
+    private final long lentoNanos;
+
+    public DataSourceMonitorado(DataSource alvo, long lentoMs) {
+        super(alvo);
+        this.lentoNanos = lentoMs * 1_000_000;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return monitorar(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return monitorar(super.getConnection(username, password));
+    }
+
+    private Connection monitorar(Connection conexao) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object resultado = invocar(conexao, method, args);
+                    if (resultado instanceof Statement statement && CRIACAO_STATEMENT.contains(method.getName())) {
+                        String sql = args != null && args.length > 0 && args[0] instanceof String texto ? texto : null;
+                        return Proxy.newProxyInstance(getClass().getClassLoader(),
+                                new Class<?>[]{method.getReturnType()}, new StatementMonitorado(statement, sql));
+                    }
+                    return resultado;
+                });
+    }
+
+    private void registrar(String sql, Map<Integer, Object> parametros, long nanos) {
+        EstatisticasSql estatisticas = EstatisticasSql.atual();
+        if (estatisticas != null) {
+            estatisticas.registrar(sql, nanos);
+        }
+        if (nanos >= lentoNanos) {
+            log.warn("SQL lento ({} ms): {} | parâmetros {}", nanos / 1_000_000, sql, parametros);
+        }
+    }
+
+    private static Object invocar(Object alvo, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(alvo, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Guarda os parâmetros (setXxx(indice, valor)) para o log do comando lento
+    private final class StatementMonitorado implements InvocationHandler {
+
+        private final Statement alvo;
+        private final String sql;
+        private final Map<Integer, Object> parametros = new TreeMap<>();
+
+        StatementMonitorado(Statement alvo, String sql) {
+            this.alvo = alvo;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String nome = method.getName();
+            if (EXECUCOES.contains(nome)) {
+                String comando = args != null && args.length > 0 && args[0] instanceof String texto ? texto : sql;
+                long inicio = System.nanoTime();
+                try {
+                    return invocar(alvo, method, args);
+                } finally {
+                    registrar(comando, parametros, System.nanoTime() - inicio);
+                }
+            }
+            if (nome.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer indice) {
+                parametros.put(indice, resumir(nome.equals("setNull") ? null : args[1]));
+            } else if (nome.equals("clearParameters")) {
+                parametros.clear();
+            }
+            return invocar(alvo, method, args);
+        }
+
+        private static Object resumir(Object valor) {
+            if (valor instanceof String texto && texto.length() > TAMANHO_MAXIMO_PARAMETRO) {
+                return texto.substring(0, TAMANHO_MAXIMO_PARAMETRO) + "...";
+            }
+            return valor;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.desafio.agenda_telefonica.monitoramento;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Comandos SQL executados pela requisição atual (quantidade, tempo de JDBC e SELECTs repetidos).
+// Iniciado pelo SqlEstatisticasFilter; fora de requisição (jobs agendados) não há estatística.
+public final class EstatisticasSql {
+
+    private static final ThreadLocal<EstatisticasSql> ATUAL = new ThreadLocal<>();
+
+    private int total;
+    private long nanos;
+
+    // Mesmo SELECT (texto com "?") executado várias vezes na requisição: sinal de N+1
+    private final Map<String, Integer> selects = new HashMap<>();
+
+    static EstatisticasSql iniciar() {
+        EstatisticasSql estatisticas = new EstatisticasSql();
+        ATUAL.set(estatisticas);
+        return estatisticas;
+    }
+
+    static EstatisticasSql atual() {
+        return ATUAL.get();
+    }
+
+    static void encerrar() {
+        ATUAL.remove();
+    }
+
+    void registrar(String sql, long duracaoNanos) {
+        total++;
+        nanos += duracaoNanos;
+        if (sql != null && sql.stripLeading().toLowerCase(Locale.ROOT).startsWith("select")) {
+            selects.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public double getMilissegundos() {
+        return nanos / 1_000_000.0;
+    }
+
+    // SELECTs executados pelo menos "limite" vezes, com a quantidade
+    public Map<String, Integer> repetidos(int limite) {
+        Map<String, Integer> repetidos = new LinkedHashMap<>();
+        selects.forEach((sql, vezes) -> {
+            if (vezes >= limite) {
+                repetidos.put(sql, vezes);
+            }
+        });
+        return repetidos;
+    }
+}
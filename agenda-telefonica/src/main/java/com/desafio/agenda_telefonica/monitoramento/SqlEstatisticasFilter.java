@@ -0,0 +1,163 @@
+package com.desafio.agenda_telefonica.monitoramento;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.Map;
+
+// Estatísticas de SQL por requisição: X-Query-Count e Server-Timing (db;dur=<ms>) na resposta,
+// e aviso no log quando o mesmo SELECT se repete agenda.sql.n-mais-um vezes (provável N+1).
+//
+// Os headers vão no primeiro byte do corpo, antes do commit. O Jackson escreve em blocos de ~8 KB,
+// então as cargas lazy feitas durante a serialização entram na conta, exceto em respostas maiores que isso
+// (para essas, o log de N+1 no fim da requisição continua completo).
+@Component
+@Profile("!edge")
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class SqlEstatisticasFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlEstatisticasFilter.class);
+
+    public static final String HEADER_QUANTIDADE = "X-Query-Count";
+    public static final String HEADER_TEMPO = "Server-Timing";
+
+    @Value("${agenda.sql.n-mais-um:10}")
+    private int limiteRepeticoes;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        EstatisticasSql estatisticas = EstatisticasSql.iniciar();
+        RespostaComEstatisticas resposta = new RespostaComEstatisticas(response, estatisticas);
+        try {
+            chain.doFilter(request, resposta);
+        } finally {
+            EstatisticasSql.encerrar();
+            resposta.escreverCabecalhos();
+            for (Map.Entry<String, Integer> repetido : estatisticas.repetidos(limiteRepeticoes).entrySet()) {
+                log.warn("Possível N+1 em {} {}: SELECT executado {} vezes: {}", request.getMethod(),
+                        request.getRequestURI(), repetido.getValue(), repetido.getKey());
+            }
+            log.debug("{} {}: {} comandos SQL em {} ms", request.getMethod(), request.getRequestURI(),
+                    estatisticas.getTotal(), estatisticas.getMilissegundos());
+        }
+    }
+
+    private static final class RespostaComEstatisticas extends HttpServletResponseWrapper {
+
+        private final EstatisticasSql estatisticas;
+        private ServletOutputStream saida;
+        private boolean escritos;
+
+        RespostaComEstatisticas(HttpServletResponse response, EstatisticasSql estatisticas) {
+            super(response);
+            this.estatisticas = estatisticas;
+        }
+
+        void escreverCabecalhos() {
+            if (escritos || isCommitted()) {
+                return;
+            }
+            escritos = true;
+            setHeader(HEADER_QUANTIDADE, String.valueOf(estatisticas.getTotal()));
+            setHeader(HEADER_TEMPO, String.format(Locale.ROOT, "db;dur=%.2f", estatisticas.getMilissegundos()));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (saida == null) {
+                saida = new SaidaComEstatisticas(super.getOutputStream());
+            }
+            return saida;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            escreverCabecalhos();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            escreverCabecalhos();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            escreverCabecalhos();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            escreverCabecalhos();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            escreverCabecalhos();
+            super.sendRedirect(location);
+        }
+
+        private final class SaidaComEstatisticas extends ServletOutputStream {
+
+            private final ServletOutputStream alvo;
+
+            SaidaComEstatisticas(ServletOutputStream alvo) {
+                this.alvo = alvo;
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                escreverCabecalhos();
+                alvo.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                escreverCabecalhos();
+                alvo.write(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                escreverCabecalhos();
+                alvo.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                escreverCabecalhos();
+                alvo.close();
+            }
+
+            @Override
+            public boolean isReady() {
+                return alvo.isReady();
+            }
+
+            @Override
+            public void setWriteListener(WriteListener listener) {
+                alvo.setWriteListener(listener);
+            }
+        }
+    }
+}
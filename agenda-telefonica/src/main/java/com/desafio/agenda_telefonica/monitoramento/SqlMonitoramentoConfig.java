@@ -0,0 +1,30 @@
+package com.desafio.agenda_telefonica.monitoramento;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+// Embrulha o DataSource do pool no DataSourceMonitorado (tempo por comando, log dos lentos)
+@Configuration
+@Profile("!edge")
+public class SqlMonitoramentoConfig {
+
+    // static: BeanPostProcessor precisa existir antes dos demais beans da configuração
+    @Bean
+    public static BeanPostProcessor dataSourceMonitoradoPostProcessor(Environment environment) {
+        long lentoMs = environment.getProperty("agenda.sql.lento-ms", Long.class, 200L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof DataSourceMonitorado)) {
+                    return new DataSourceMonitorado(dataSource, lentoMs);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,47 @@
+package com.desafio.agenda_telefonica.repository;
+
+import com.desafio.agenda_telefonica.model.Contato;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// Operações de persistência que o ContatoService usa.
+// Implementada pelo ContatoRepository (JPA) e, no profile edge, pelo MmapContatoArmazenamento.
+public interface ContatoArmazenamento {
+
+    <S extends Contato> S save(S contato);
+
+    Optional<Contato> findById(Long id);
+
+    void delete(Contato contato);
+
+    long count();
+
+    Optional<Contato> findByCelular(String celular);
+
+    // Donos dos celulares informados (já normalizados)
+    List<Long> findContatoIdsPorCelulares(Collection<String> numeros);
+
+    List<Contato> findByAtivoTrue();
+
+    List<Contato> findByAtivoFalse();
+
+    List<Contato> findByAtivoTrueAndFavoritoTrue();
+
+    long countByAtivoTrue();
+
+    long countByAtivoFalse();
+
+    long countByFavoritoTrueAndAtivoTrue();
+
+    Slice<Contato> findByTags_Nome(String nome, Pageable pageable);
+
+    // Listagem com filtros e ordenação (por nome, email ou id), sem count(*)
+    Slice<Contato> listar(ContatoFiltro filtro, Pageable pageable);
+
+    // Total aproximado do filtro (exato para ativo/favorito no armazenamento embarcado, que mantém contadores)
+    long estimar(ContatoFiltro filtro);
+}
@@ -0,0 +1,17 @@
+package com.desafio.agenda_telefonica.repository;
+
+import com.desafio.agenda_telefonica.model.ContatoArquivo;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ContatoArquivoRepository extends JpaRepository<ContatoArquivo, Long> {
+    // Busca por ID como consulta (não em.find), para passar pelo filtro de tenant do Hibernate
+    @Override
+    @Query("select a from ContatoArquivo a where a.id = :id")
+    Optional<ContatoArquivo> findById(@Param("id") Long id);
+}
@@ -0,0 +1,24 @@
+package com.desafio.agenda_telefonica.repository;
+
+import com.desafio.agenda_telefonica.model.ContatoDuplicidade;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface ContatoDuplicidadeRepository extends JpaRepository<ContatoDuplicidade, Long> {
+
+    // Resultado da execução anterior do tenant (o tenant vai explícito: é um DELETE em massa)
+    @Modifying
+    @Query("delete from ContatoDuplicidade d where d.tenantId = :tenantId")
+    int apagarDoTenant(@Param("tenantId") String tenantId);
+
+    // Pares que citam contatos já mesclados
+    @Modifying
+    @Query("delete from ContatoDuplicidade d where d.contatoId in :ids or d.duplicadoId in :ids")
+    int apagarEnvolvendo(@Param("ids") Collection<Long> ids);
+}
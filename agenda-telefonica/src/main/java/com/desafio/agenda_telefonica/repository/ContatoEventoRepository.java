@@ -0,0 +1,32 @@
+package com.desafio.agenda_telefonica.repository;
+
+import com.desafio.agenda_telefonica.model.ContatoEvento;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ContatoEventoRepository extends JpaRepository<ContatoEvento, Long> {
+
+    // Paginação por chave (id > ultimoId): custo constante por página, mesmo no fim de históricos longos
+    List<ContatoEvento> findByContatoIdAndIdGreaterThanOrderByIdAsc(Long contatoId, Long ultimoId, Limit limit);
+
+    List<ContatoEvento> findByOcorridoEmGreaterThanEqualAndOcorridoEmLessThanAndIdGreaterThanOrderByIdAsc(
+            Instant de, Instant ate, Long ultimoId, Limit limit);
+
+    // Retenção: SQL nativo para pegar todos os tenants (o job roda fora de requisição)
+    @Query(value = "select id from contato_evento where ocorrido_em < :limite order by id limit :quantidade",
+            nativeQuery = true)
+    List<Long> findIdsAnterioresA(@Param("limite") Instant limite, @Param("quantidade") int quantidade);
+
+    @Modifying
+    @Query(value = "delete from contato_evento where id in (:ids)", nativeQuery = true)
+    int apagarPorIds(@Param("ids") Collection<Long> ids);
+}
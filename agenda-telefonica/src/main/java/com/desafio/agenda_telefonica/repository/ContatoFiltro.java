@@ -0,0 +1,42 @@
+package com.desafio.agenda_telefonica.repository;
+
+import com.desafio.agenda_telefonica.model.Contato;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Filtros combináveis da listagem (null = não filtra). O mesmo filtro vira Specification no JPA
+// e predicado em memória no armazenamento embarcado.
+public record ContatoFiltro(Boolean ativo, Boolean favorito, Boolean comEmail, Boolean comTelefone) {
+
+    public Specification<Contato> especificacao() {
+        List<Specification<Contato>> condicoes = new ArrayList<>(4);
+        if (ativo != null) {
+            condicoes.add((root, query, cb) -> cb.equal(root.get("ativo"), ativo));
+        }
+        if (favorito != null) {
+            condicoes.add((root, query, cb) -> cb.equal(root.get("favorito"), favorito));
+        }
+        if (comEmail != null) {
+            condicoes.add((root, query, cb) -> comEmail ? cb.isNotNull(root.get("email")) : cb.isNull(root.get("email")));
+        }
+        if (comTelefone != null) {
+            condicoes.add((root, query, cb) -> comTelefone
+                    ? cb.isNotNull(root.get("telefone")) : cb.isNull(root.get("telefone")));
+        }
+        return Specification.allOf(condicoes);
+    }
+
+    public boolean aceita(Contato contato) {
+        return (ativo == null || contato.isAtivo() == ativo)
+                && (favorito == null || contato.isFavorito() == favorito)
+                && (comEmail == null || (contato.getEmail() != null) == comEmail)
+                && (comTelefone == null || (contato.getTelefone() != null) == comTelefone);
+    }
+
+    // Só ativo/favorito: dá para responder pelos contadores do armazenamento, sem ler os contatos
+    public boolean somenteAtivoFavorito() {
+        return comEmail == null && comTelefone == null;
+    }
+}
@@ -0,0 +1,15 @@
+package com.desafio.agenda_telefonica.repository;
+
+import com.desafio.agenda_telefonica.model.Contato;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+// Listagem com filtros e ordenação do ContatoRepository (implementada com Criteria em ContatoListagemRepositoryImpl)
+public interface ContatoListagemRepository {
+
+    // Slice: busca size + 1 linhas para saber se há próxima página, sem count(*)
+    Slice<Contato> listar(ContatoFiltro filtro, Pageable pageable);
+
+    // Total aproximado do filtro, para o X-Total-Count; exato só quando é pequeno
+    long estimar(ContatoFiltro filtro);
+}
@@ -0,0 +1,122 @@
+package com.desafio.agenda_telefonica.repository;
+
+import com.desafio.agenda_telefonica.model.Contato;
+import com.desafio.agenda_telefonica.tenant.TenantContext;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Criteria passa pelo filtro de tenant do Hibernate como as consultas derivadas
+public class ContatoListagemRepositoryImpl implements ContatoListagemRepository {
+
+    // "Index Only Scan using ... on contato  (cost=0.42..8.44 rows=1234 width=4)"
+    private static final Pattern LINHAS_ESTIMADAS = Pattern.compile("rows=(\\d+)");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Até aqui o total é exato (a contagem para no limite); acima, vem das estatísticas do planner
+    @Value("${agenda.listagem.contagem-exata-ate:1000}")
+    private int contagemExataAte;
+
+    @Override
+    public Slice<Contato> listar(ContatoFiltro filtro, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Contato> query = cb.createQuery(Contato.class);
+        Root<Contato> root = query.from(Contato.class);
+        filtrar(query, root, cb, filtro);
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        List<Contato> contatos = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean temProxima = contatos.size() > pageable.getPageSize();
+        return new SliceImpl<>(temProxima ? contatos.subList(0, pageable.getPageSize()) : contatos, pageable, temProxima);
+    }
+
+    // Sem count(*) da tabela inteira: conta no máximo contagemExataAte + 1 linhas e, passando disso,
+    // usa a estimativa do EXPLAIN (pg_class.reltuples e pg_stats). Fora do PostgreSQL (H2 do profile dev),
+    // onde não há estimativa, cai no count(*) exato.
+    @Override
+    public long estimar(ContatoFiltro filtro) {
+        Map<String, Object> parametros = new LinkedHashMap<>();
+        String where = where(filtro, parametros);
+
+        Query limitada = entityManager.createNativeQuery(
+                "select count(*) from (select 1 from contato where " + where + " limit :limite) limitada");
+        parametros.forEach(limitada::setParameter);
+        long contados = ((Number) limitada.setParameter("limite", contagemExataAte + 1).getSingleResult()).longValue();
+        if (contados <= contagemExataAte) {
+            return contados;
+        }
+        if (!(dialeto() instanceof PostgreSQLDialect)) {
+            return contar(filtro);
+        }
+
+        Query explain = entityManager.createNativeQuery("explain select 1 from contato where " + where);
+        parametros.forEach(explain::setParameter);
+        Matcher linhas = LINHAS_ESTIMADAS.matcher(String.valueOf(explain.getResultList().get(0)));
+        // Estatística desatualizada pode estimar menos do que já foi contado
+        return linhas.find() ? Math.max(Long.parseLong(linhas.group(1)), contados) : contados;
+    }
+
+    // O mesmo filtro do ContatoFiltro.especificacao(), em SQL; o tenant é explícito por ser consulta nativa
+    private static String where(ContatoFiltro filtro, Map<String, Object> parametros) {
+        StringBuilder where = new StringBuilder("tenant_id = :tenant");
+        parametros.put("tenant", TenantContext.getTenantId());
+        if (filtro.ativo() != null) {
+            where.append(" and ativo = :ativo");
+            parametros.put("ativo", filtro.ativo());
+        }
+        if (filtro.favorito() != null) {
+            where.append(" and favorito = :favorito");
+            parametros.put("favorito", filtro.favorito());
+        }
+        if (filtro.comEmail() != null) {
+            where.append(filtro.comEmail() ? " and email is not null" : " and email is null");
+        }
+        if (filtro.comTelefone() != null) {
+            where.append(filtro.comTelefone() ? " and telefone is not null" : " and telefone is null");
+        }
+        return where.toString();
+    }
+
+    private long contar(ContatoFiltro filtro) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Contato> root = query.from(Contato.class);
+        query.select(cb.count(root));
+        filtrar(query, root, cb, filtro);
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private Dialect dialeto() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+    }
+
+    private static void filtrar(CriteriaQuery<?> query, Root<Contato> root, CriteriaBuilder cb, ContatoFiltro filtro) {
+        Predicate predicado = filtro.especificacao().toPredicate(root, query, cb);
+        if (predicado != null) {
+            query.where(predicado);
+        }
+    }
+}
@@ -1,17 +1,50 @@
 package com.desafio.agenda_telefonica.repository;
 
+import com.desafio.agenda_telefonica.deduplicacao.ContatoResumo;
 import com.desafio.agenda_telefonica.model.Contato;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ContatoRepository extends JpaRepository<Contato, Long> {
-    // Buscar contato pelo celular (para validar unicidade)
+public interface ContatoRepository extends JpaRepository<Contato, Long>, ContatoArmazenamento, ContatoListagemRepository {
+    // Busca por ID como consulta (não em.find), para passar pelo filtro de tenant do Hibernate
+    @Override
+    @Query("select c from Contato c where c.id = :id")
+    Optional<Contato> findById(@Param("id") Long id);
+
+    // Redeclarados: vêm do CrudRepository e do ContatoArmazenamento, e sem isso a chamada fica ambígua
+    @Override
+    <S extends Contato> S save(S contato);
+
+    @Override
+    void delete(Contato contato);
+
+    // Buscar contato pelo celular principal
     Optional<Contato> findByCelular(String celular);
 
+    // Donos dos celulares informados (já normalizados), em uma consulta no índice único de contato_telefone
+    @Query("select distinct t.contato.id from ContatoTelefone t where t.numeroUnico in :numeros")
+    List<Long> findContatoIdsPorCelulares(@Param("numeros") Collection<String> numeros);
+
+    // Contatos gravados antes da tabela contato_telefone (migração), em ordem de ID a partir de ultimoId
+    @Query("select c from Contato c where c.id > :ultimoId"
+            + " and not exists (select t.id from ContatoTelefone t where t.contato = c) order by c.id")
+    List<Contato> findSemTelefones(@Param("ultimoId") long ultimoId, Pageable pageable);
+
+    // Leitura da deduplicação: só id, nome e e-mail (sem montar entidades), em ordem de ID a partir de ultimoId
+    @Query("select new com.desafio.agenda_telefonica.deduplicacao.ContatoResumo(c.id, c.nome, c.email)"
+            + " from Contato c where c.id > :ultimoId order by c.id")
+    List<ContatoResumo> findResumos(@Param("ultimoId") long ultimoId, Limit limit);
+
     // Listar apenas contatos ativos
     List<Contato> findByAtivoTrue();
 
@@ -27,4 +60,7 @@ public interface ContatoRepository extends JpaRepository<Contato, Long> {
 
     long countByFavoritoTrueAndAtivoTrue();
 
+    // Contatos de uma tag, paginados. Slice não dispara count(*): o total vem do contador da tag
+    Slice<Contato> findByTags_Nome(String nome, Pageable pageable);
+
 }
@@ -0,0 +1,25 @@
+package com.desafio.agenda_telefonica.repository;
+
+import com.desafio.agenda_telefonica.deduplicacao.NumeroContato;
+import com.desafio.agenda_telefonica.model.ContatoTelefone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ContatoTelefoneRepository extends JpaRepository<ContatoTelefone, Long> {
+
+    List<ContatoTelefone> findByContato_Id(Long contatoId);
+
+    @Query("select t.numeroUnico from ContatoTelefone t where t.numeroUnico in :numeros")
+    List<String> findCelularesCadastrados(@Param("numeros") Collection<String> numeros);
+
+    // Números normalizados dos contatos com ID em (de, ate], pelo índice de contato_id
+    @Query("select new com.desafio.agenda_telefonica.deduplicacao.NumeroContato(t.contato.id, t.numeroNormalizado)"
+            + " from ContatoTelefone t where t.contato.id > :de and t.contato.id <= :ate")
+    List<NumeroContato> findNumerosPorFaixa(@Param("de") long de, @Param("ate") long ate);
+}
@@ -0,0 +1,25 @@
+package com.desafio.agenda_telefonica.repository;
+
+import com.desafio.agenda_telefonica.model.Tag;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TagRepository extends JpaRepository<Tag, Long> {
+
+    Optional<Tag> findByNome(String nome);
+
+    List<Tag> findByNomeIn(Collection<String> nomes);
+
+    // Atualiza o contador direto no banco (sem carregar a entidade e sem count(*))
+    @Modifying
+    @Query("update Tag t set t.totalContatos = t.totalContatos + :delta where t.id in :ids")
+    int somarAoContador(@Param("ids") Collection<Long> ids, @Param("delta") long delta);
+}
@@ -0,0 +1,38 @@
+package com.desafio.agenda_telefonica.repository.mmap;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+// Sem banco no profile edge não há JpaTransactionManager, mas o ContatoService continua anotado com @Transactional.
+// Cada gravação do MmapContatoArmazenamento já é atômica (sob o lock de escrita), então não há o que coordenar.
+@Configuration
+@Profile("edge")
+public class MmapArmazenamentoConfig {
+
+    @Bean
+    public PlatformTransactionManager transactionManager() {
+        return new AbstractPlatformTransactionManager() {
+            @Override
+            protected Object doGetTransaction() {
+                return new Object();
+            }
+
+            @Override
+            protected void doBegin(Object transaction, TransactionDefinition definition) {
+            }
+
+            @Override
+            protected void doCommit(DefaultTransactionStatus status) {
+            }
+
+            @Override
+            protected void doRollback(DefaultTransactionStatus status) {
+            }
+        };
+    }
+}
@@ -0,0 +1,729 @@
+package com.desafio.agenda_telefonica.repository.mmap;
+
+import com.desafio.agenda_telefonica.exception.RecursoNaoSuportadoException;
+import com.desafio.agenda_telefonica.model.Contato;
+import com.desafio.agenda_telefonica.model.ContatoTelefone;
+import com.desafio.agenda_telefonica.model.TipoTelefone;
+import com.desafio.agenda_telefonica.repository.ContatoArmazenamento;
+import com.desafio.agenda_telefonica.repository.ContatoFiltro;
+import com.desafio.agenda_telefonica.tenant.TenantContext;
+import com.desafio.agenda_telefonica.util.TelefoneUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+// Armazenamento embarcado para o profile edge (quiosques sem servidor de banco).
+//
+// Arquivo: cabeçalho + registros de tamanho fixo, mapeados em memória. Toda gravação é um registro novo
+// no fim do arquivo (log append-only): o registro mais recente de um ID vale, e a remoção grava uma lápide.
+// Só depois do registro escrito o contador do cabeçalho avança, então uma queda no meio da escrita
+// perde apenas a última operação. Na abertura o log é relido para montar os índices em memória
+// (ID -> registro e celular -> ID, por tenant); leituras vão direto ao registro no mapeamento.
+// A compactação periódica reescreve só os registros vivos quando mais da metade do arquivo é lixo.
+//
+// Capacidade: um único mapeamento (FileChannel.map vai até 2 GB) com posições em int, então o arquivo
+// comporta no máximo MAX_REGISTROS registros (~3,3 milhões, contando versões antigas e lápides).
+// Com o arquivo cheio, as versões mortas são compactadas antes de crescer; no limite e sem nada a descartar,
+// a gravação é recusada.
+@Repository
+@Profile("edge")
+public class MmapContatoArmazenamento implements ContatoArmazenamento {
+
+    private static final Logger log = LoggerFactory.getLogger(MmapContatoArmazenamento.class);
+
+    // =============================
+    // FORMATO DO ARQUIVO
+    // =============================
+
+    private static final int MAGICO = 0x41474E44; // "AGND"
+    private static final short VERSAO = 1;
+
+    // Cabeçalho: mágico (int), versão (short), tamanho do registro (short), registros gravados (int), último ID (long)
+    private static final int CABECALHO = 64;
+    private static final int POS_REGISTROS = 8;
+    private static final int POS_ULTIMO_ID = 12;
+
+    static final int TAMANHO_REGISTRO = 640;
+
+    private static final byte VIVO = 1;
+    private static final byte REMOVIDO = 2;
+
+    private static final byte ATIVO = 1;
+    private static final byte FAVORITO = 2;
+
+    // Limites em bytes (UTF-8) de cada campo no registro
+    private static final int MAX_TENANT = 40;
+    private static final int MAX_NOME = 200;
+    private static final int MAX_TELEFONE = 30;
+    private static final int MAX_EMAIL = 150;
+    static final int MAX_ADICIONAIS = 3;
+
+    // Registro: situação (byte), id (long), flags (byte), tenant, nome, telefone, celular, email,
+    // quantidade de telefones adicionais (byte), os adicionais (tipo + número) e inativadoEm (epoch ms, 0 = null).
+    // O resto fica reservado.
+    private static final int POS_SITUACAO = 0;
+    private static final int POS_ID = 1;
+    private static final int POS_FLAGS = 9;
+    private static final int POS_TEXTOS = 10;
+    private static final int POS_INATIVADO_EM = 570;
+
+    private static final int CAPACIDADE_INICIAL = 1024;
+
+    // Maior quantidade de registros cujas posições cabem em int (e num único mapeamento)
+    static final int MAX_REGISTROS = (Integer.MAX_VALUE - CABECALHO) / TAMANHO_REGISTRO;
+
+    @Value("${agenda.armazenamento.mmap.arquivo:./data/contatos.dat}")
+    private Path arquivo;
+
+    // force() a cada gravação: mais lento, mas sobrevive a queda de energia (não só do processo)
+    @Value("${agenda.armazenamento.mmap.sincronizar:true}")
+    private boolean sincronizar;
+
+    // Abaixo disso não compensa reescrever o arquivo
+    @Value("${agenda.armazenamento.mmap.compactacao.minimo:1000}")
+    private int minimoParaCompactar;
+
+    // Limite de registros do arquivo (até MAX_REGISTROS), para quiosques com pouco disco
+    @Value("${agenda.armazenamento.mmap.maximo-registros:" + MAX_REGISTROS + "}")
+    private int maximoRegistros = MAX_REGISTROS;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private FileChannel canal;
+    private MappedByteBuffer buffer;
+    private int capacidade;
+    private int registros;
+    private long ultimoId;
+
+    private final Map<String, Indice> indices = new HashMap<>();
+
+    // =============================
+    // CICLO DE VIDA
+    // =============================
+
+    @PostConstruct
+    public void abrir() {
+        lock.writeLock().lock();
+        try {
+            Files.createDirectories(arquivo.toAbsolutePath().getParent());
+            canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            boolean novo = canal.size() == 0;
+            int doArquivo = (int) Math.min((canal.size() - CABECALHO) / TAMANHO_REGISTRO, MAX_REGISTROS);
+            capacidade = Math.max(Math.min(CAPACIDADE_INICIAL, limite()), doArquivo);
+            mapear();
+
+            if (novo) {
+                buffer.putInt(0, MAGICO);
+                buffer.putShort(4, VERSAO);
+                buffer.putShort(6, (short) TAMANHO_REGISTRO);
+                buffer.putInt(POS_REGISTROS, 0);
+                buffer.putLong(POS_ULTIMO_ID, 0);
+                buffer.force();
+            } else if (buffer.getInt(0) != MAGICO || buffer.getShort(6) != TAMANHO_REGISTRO) {
+                throw new IllegalStateException("Arquivo não é um armazenamento de contatos: " + arquivo);
+            }
+
+            recuperar();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void fechar() {
+        lock.writeLock().lock();
+        try {
+            if (canal != null && canal.isOpen()) {
+                buffer.force();
+                canal.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Relê o log do começo: a última versão de cada ID vale, lápides removem
+    private void recuperar() {
+        indices.clear();
+        registros = buffer.getInt(POS_REGISTROS);
+        ultimoId = buffer.getLong(POS_ULTIMO_ID);
+
+        for (int slot = 0; slot < registros; slot++) {
+            int pos = posicao(slot);
+            long id = buffer.getLong(pos + POS_ID);
+            String tenant = lerTexto(pos + POS_TEXTOS);
+            Indice indice = indice(tenant);
+            indice.remover(id);
+            if (buffer.get(pos + POS_SITUACAO) == VIVO) {
+                indice.adicionar(id, lerEntrada(slot));
+            }
+            ultimoId = Math.max(ultimoId, id);
+        }
+        log.info("Armazenamento {} aberto: {} contatos, {} registros", arquivo, vivos(), registros);
+    }
+
+    private void mapear() throws IOException {
+        buffer = canal.map(FileChannel.MapMode.READ_WRITE, 0, CABECALHO + (long) capacidade * TAMANHO_REGISTRO);
+    }
+
+    // =============================
+    // GRAVAÇÃO
+    // =============================
+
+    @Override
+    public <S extends Contato> S save(S contato) {
+        String tenant = TenantContext.getTenantId();
+        lock.writeLock().lock();
+        try {
+            Indice indice = indice(tenant);
+
+            // Como no JPA: ID inexistente (ou de outro tenant) vira um contato novo
+            if (contato.getId() == null || !indice.slots.containsKey(contato.getId())) {
+                contato.setId(ultimoId + 1);
+            }
+
+            List<String> celulares = celulares(contato);
+            for (String celular : celulares) {
+                Long dono = indice.celulares.get(celular);
+                if (dono != null && !dono.equals(contato.getId())) {
+                    throw new DataIntegrityViolationException("uk_contato_tenant_celular: " + celular);
+                }
+            }
+
+            int slot = anexar(pos -> escrever(pos, contato, tenant));
+            ultimoId = Math.max(ultimoId, contato.getId());
+            buffer.putLong(POS_ULTIMO_ID, ultimoId);
+            concluir(slot);
+
+            // anexar() pode ter compactado o arquivo, o que remonta os índices
+            indice = indice(tenant);
+            indice.remover(contato.getId());
+            indice.adicionar(contato.getId(), new Entrada(slot, contato.isAtivo(), contato.isFavorito(), celulares));
+            return contato;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void delete(Contato contato) {
+        String tenant = TenantContext.getTenantId();
+        lock.writeLock().lock();
+        try {
+            Indice indice = indice(tenant);
+            if (contato.getId() == null || !indice.slots.containsKey(contato.getId())) {
+                return;
+            }
+            if (registros == capacidade && capacidade >= limite()) {
+                // Sem espaço para a lápide: sai do índice e a compactação descarta o registro
+                Entrada entrada = indice.slots.get(contato.getId());
+                indice.remover(contato.getId());
+                try {
+                    reescrever();
+                } catch (RuntimeException e) {
+                    indice.adicionar(contato.getId(), entrada);
+                    throw e;
+                }
+                return;
+            }
+            int slot = anexar(pos -> {
+                buffer.put(pos + POS_SITUACAO, REMOVIDO);
+                buffer.putLong(pos + POS_ID, contato.getId());
+                escreverTexto(pos + POS_TEXTOS, tenant, MAX_TENANT, "tenant");
+            });
+            concluir(slot);
+            indice(tenant).remover(contato.getId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Escreve o registro no próximo slot livre; o cabeçalho só avança em concluir()
+    private int anexar(IntConsumer escritor) {
+        if (registros == capacidade) {
+            abrirEspaco();
+        }
+        int slot = registros;
+        int pos = posicao(slot);
+        // Zera o slot antes: um registro rejeitado no meio não deixa lixo de uma tentativa anterior
+        buffer.put(pos, new byte[TAMANHO_REGISTRO]);
+        escritor.accept(pos);
+        return slot;
+    }
+
+    private void concluir(int slot) {
+        registros = slot + 1;
+        buffer.putInt(POS_REGISTROS, registros);
+        if (sincronizar) {
+            buffer.force();
+        }
+    }
+
+    // Arquivo cheio: se boa parte é de versões mortas (ou se já está no limite), compacta em vez de crescer.
+    // No limite e sem nada a descartar, recusa a gravação.
+    private void abrirEspaco() {
+        int mortos = registros - vivos();
+        if (mortos > 0 && (mortos >= registros / 2 || capacidade >= limite())) {
+            reescrever();
+            if (registros < capacidade) {
+                return;
+            }
+        }
+        if (capacidade >= limite()) {
+            throw new DataAccessResourceFailureException("Armazenamento cheio: " + registros
+                    + " contatos no limite de " + limite() + " registros de " + arquivo);
+        }
+        crescer();
+    }
+
+    private void crescer() {
+        try {
+            buffer.force();
+            capacidade = (int) Math.min(2L * capacidade, limite());
+            mapear();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void escrever(int pos, Contato contato, String tenant) {
+        List<ContatoTelefone> adicionais = adicionais(contato);
+        if (adicionais.size() > MAX_ADICIONAIS) {
+            throw new IllegalArgumentException("Máximo de " + MAX_ADICIONAIS + " telefones adicionais por contato");
+        }
+
+        buffer.put(pos + POS_SITUACAO, VIVO);
+        buffer.putLong(pos + POS_ID, contato.getId());
+        buffer.put(pos + POS_FLAGS, (byte) ((contato.isAtivo() ? ATIVO : 0) | (contato.isFavorito() ? FAVORITO : 0)));
+
+        int p = pos + POS_TEXTOS;
+        p = escreverTexto(p, tenant, MAX_TENANT, "tenant");
+        p = escreverTexto(p, contato.getNome(), MAX_NOME, "nome");
+        p = escreverTexto(p, contato.getTelefone(), MAX_TELEFONE, "telefone");
+        p = escreverTexto(p, contato.getCelular(), MAX_TELEFONE, "celular");
+        p = escreverTexto(p, contato.getEmail(), MAX_EMAIL, "email");
+
+        buffer.put(p++, (byte) adicionais.size());
+        for (ContatoTelefone telefone : adicionais) {
+            buffer.put(p++, (byte) telefone.getTipo().ordinal());
+            p = escreverTexto(p, telefone.getNumero(), MAX_TELEFONE, "telefone");
+        }
+
+        buffer.putLong(pos + POS_INATIVADO_EM, contato.getInativadoEm() == null ? 0 : contato.getInativadoEm().toEpochMilli());
+    }
+
+    // Texto com prefixo de tamanho (short, -1 = null) e espaço fixo de "maximo" bytes
+    private int escreverTexto(int pos, String valor, int maximo, String campo) {
+        if (valor == null) {
+            buffer.putShort(pos, (short) -1);
+        } else {
+            byte[] bytes = valor.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > maximo) {
+                throw new IllegalArgumentException("Campo " + campo + " excede " + maximo + " bytes");
+            }
+            buffer.putShort(pos, (short) bytes.length);
+            buffer.put(pos + 2, bytes);
+        }
+        return pos + 2 + maximo;
+    }
+
+    // =============================
+    // LEITURA
+    // =============================
+
+    @Override
+    public Optional<Contato> findById(Long id) {
+        lock.readLock().lock();
+        try {
+            Entrada entrada = indiceAtual().slots.get(id);
+            return entrada == null ? Optional.empty() : Optional.of(ler(entrada.slot()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Contato> findByCelular(String celular) {
+        lock.readLock().lock();
+        try {
+            Indice indice = indiceAtual();
+            Long id = indice.celulares.get(TelefoneUtils.normalizar(celular));
+            return id == null ? Optional.empty() : Optional.of(ler(indice.slots.get(id).slot()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Long> findContatoIdsPorCelulares(Collection<String> numeros) {
+        lock.readLock().lock();
+        try {
+            Indice indice = indiceAtual();
+            return numeros.stream()
+                    .map(indice.celulares::get)
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Contato> findByAtivoTrue() {
+        return listar(Entrada::ativo);
+    }
+
+    @Override
+    public List<Contato> findByAtivoFalse() {
+        return listar(e -> !e.ativo());
+    }
+
+    @Override
+    public List<Contato> findByAtivoTrueAndFavoritoTrue() {
+        return listar(e -> e.ativo() && e.favorito());
+    }
+
+    @Override
+    public long count() {
+        return contar(i -> i.slots.size());
+    }
+
+    @Override
+    public long countByAtivoTrue() {
+        return contar(i -> i.ativos);
+    }
+
+    @Override
+    public long countByAtivoFalse() {
+        return contar(i -> i.slots.size() - i.ativos);
+    }
+
+    @Override
+    public long countByFavoritoTrueAndAtivoTrue() {
+        return contar(i -> i.favoritosAtivos);
+    }
+
+    @Override
+    public Slice<Contato> findByTags_Nome(String nome, Pageable pageable) {
+        throw new RecursoNaoSuportadoException("Tags não são suportadas neste armazenamento");
+    }
+
+    // Filtra ativo/favorito pelo índice; e-mail, telefone e a ordenação precisam dos registros decodificados
+    @Override
+    public Slice<Contato> listar(ContatoFiltro filtro, Pageable pageable) {
+        List<Contato> contatos = listar(porAtivoFavorito(filtro));
+        contatos.removeIf(contato -> !filtro.aceita(contato));
+        contatos.sort(comparador(pageable.getSort()));
+        int inicio = (int) Math.min(pageable.getOffset(), contatos.size());
+        int fim = Math.min(inicio + pageable.getPageSize(), contatos.size());
+        return new SliceImpl<>(new ArrayList<>(contatos.subList(inicio, fim)), pageable, fim < contatos.size());
+    }
+
+    @Override
+    public long estimar(ContatoFiltro filtro) {
+        if (!filtro.somenteAtivoFavorito()) {
+            return listar(porAtivoFavorito(filtro)).stream().filter(filtro::aceita).count();
+        }
+        if (filtro.favorito() == null) {
+            return filtro.ativo() == null ? count() : filtro.ativo() ? countByAtivoTrue() : countByAtivoFalse();
+        }
+        if (Boolean.TRUE.equals(filtro.ativo()) && filtro.favorito()) {
+            return countByFavoritoTrueAndAtivoTrue();
+        }
+        Predicate<Entrada> condicao = porAtivoFavorito(filtro);
+        return contar(i -> i.slots.values().stream().filter(condicao).count());
+    }
+
+    private static Predicate<Entrada> porAtivoFavorito(ContatoFiltro filtro) {
+        return e -> (filtro.ativo() == null || e.ativo() == filtro.ativo())
+                && (filtro.favorito() == null || e.favorito() == filtro.favorito());
+    }
+
+    // Mesma ordem do banco: nulls por último no ASC e primeiro no DESC
+    private static Comparator<Contato> comparador(Sort sort) {
+        Comparator<Contato> comparador = null;
+        for (Sort.Order ordem : sort) {
+            Comparator<Contato> campo = switch (ordem.getProperty()) {
+                case "nome" -> Comparator.comparing(Contato::getNome, Comparator.nullsLast(Comparator.naturalOrder()));
+                case "email" -> Comparator.comparing(Contato::getEmail, Comparator.nullsLast(Comparator.naturalOrder()));
+                case "id" -> Comparator.comparing(Contato::getId);
+                default -> throw new IllegalArgumentException("Ordenação não suportada: " + ordem.getProperty());
+            };
+            if (ordem.isDescending()) {
+                campo = campo.reversed();
+            }
+            comparador = comparador == null ? campo : comparador.thenComparing(campo);
+        }
+        return comparador == null ? Comparator.comparing(Contato::getId) : comparador;
+    }
+
+    // Filtra pelo índice em memória e só decodifica os registros que entram no resultado (em ordem de ID)
+    private List<Contato> listar(Predicate<Entrada> filtro) {
+        lock.readLock().lock();
+        try {
+            List<Contato> contatos = new ArrayList<>();
+            for (Entrada entrada : indiceAtual().slots.values()) {
+                if (filtro.test(entrada)) {
+                    contatos.add(ler(entrada.slot()));
+                }
+            }
+            return contatos;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long contar(ToLongFunction<Indice> contador) {
+        lock.readLock().lock();
+        try {
+            return contador.applyAsLong(indiceAtual());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Contato ler(int slot) {
+        int pos = posicao(slot);
+        byte flags = buffer.get(pos + POS_FLAGS);
+
+        Contato contato = new Contato();
+        contato.setId(buffer.getLong(pos + POS_ID));
+        contato.setAtivo((flags & ATIVO) != 0);
+        contato.setFavorito((flags & FAVORITO) != 0);
+
+        int p = pos + POS_TEXTOS + 2 + MAX_TENANT;
+        contato.setNome(lerTexto(p));
+        p += 2 + MAX_NOME;
+        contato.setTelefone(lerTexto(p));
+        p += 2 + MAX_TELEFONE;
+        contato.setCelular(lerTexto(p));
+        p += 2 + MAX_TELEFONE;
+        contato.setEmail(lerTexto(p));
+        p += 2 + MAX_EMAIL;
+
+        long inativadoEm = buffer.getLong(pos + POS_INATIVADO_EM);
+        contato.setInativadoEm(inativadoEm == 0 ? null : Instant.ofEpochMilli(inativadoEm));
+
+        // Mesma lista que o ContatoService monta: celular, telefone (se diferente) e adicionais
+        List<ContatoTelefone> telefones = new ArrayList<>();
+        adicionarTelefone(contato, telefones, TipoTelefone.CELULAR, contato.getCelular());
+        adicionarTelefone(contato, telefones, TipoTelefone.FIXO, contato.getTelefone());
+        int quantidade = buffer.get(p++);
+        for (int i = 0; i < quantidade; i++) {
+            TipoTelefone tipo = TipoTelefone.values()[buffer.get(p++)];
+            adicionarTelefone(contato, telefones, tipo, lerTexto(p));
+            p += 2 + MAX_TELEFONE;
+        }
+        contato.setTelefones(telefones);
+        contato.setTags(new HashSet<>());
+        return contato;
+    }
+
+    // Só o necessário para o índice: flags e celulares
+    private Entrada lerEntrada(int slot) {
+        Contato contato = ler(slot);
+        return new Entrada(slot, contato.isAtivo(), contato.isFavorito(), celulares(contato));
+    }
+
+    private String lerTexto(int pos) {
+        short tamanho = buffer.getShort(pos);
+        if (tamanho < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[tamanho];
+        buffer.get(pos + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void adicionarTelefone(Contato contato, List<ContatoTelefone> telefones, TipoTelefone tipo, String numero) {
+        String normalizado = TelefoneUtils.normalizar(numero);
+        if (normalizado != null && telefones.stream().noneMatch(t -> t.getNumeroNormalizado().equals(normalizado))) {
+            ContatoTelefone telefone = new ContatoTelefone(tipo, numero);
+            telefone.setContato(contato);
+            telefones.add(telefone);
+        }
+    }
+
+    // =============================
+    // COMPACTAÇÃO
+    // =============================
+
+    // Reescreve os registros vivos num arquivo novo e troca o atual por ele (move atômico)
+    @Scheduled(fixedDelayString = "${agenda.armazenamento.mmap.compactacao-ms:300000}",
+            initialDelayString = "${agenda.armazenamento.mmap.compactacao-ms:300000}")
+    public void compactar() {
+        lock.writeLock().lock();
+        try {
+            int vivos = vivos();
+            int mortos = registros - vivos;
+            if (mortos < minimoParaCompactar || mortos <= vivos) {
+                return;
+            }
+            reescrever();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Chamado com o lock de escrita
+    private void reescrever() {
+        int vivos = vivos();
+        int mortos = registros - vivos;
+        try {
+            Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".compactando");
+            try (FileChannel destino = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                int novaCapacidade = (int) Math.min(Math.max(CAPACIDADE_INICIAL, 2L * vivos), Math.max(limite(), vivos));
+                MappedByteBuffer novo = destino.map(FileChannel.MapMode.READ_WRITE, 0,
+                        CABECALHO + (long) novaCapacidade * TAMANHO_REGISTRO);
+
+                byte[] registro = new byte[TAMANHO_REGISTRO];
+                int slot = 0;
+                for (Indice indice : indices.values()) {
+                    for (Entrada entrada : indice.slots.values()) {
+                        buffer.get(posicao(entrada.slot()), registro);
+                        novo.put(posicao(slot++), registro);
+                    }
+                }
+                buffer.get(0, registro, 0, CABECALHO);
+                novo.put(0, registro, 0, CABECALHO);
+                novo.putInt(POS_REGISTROS, slot);
+                novo.putLong(POS_ULTIMO_ID, ultimoId);
+                novo.force();
+            }
+
+            canal.close();
+            Files.move(temporario, arquivo, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            log.info("Armazenamento {} compactado: {} registros removidos", arquivo, mortos);
+
+            // Ainda com o lock: nenhuma gravação pode cair no mapeamento do arquivo antigo
+            abrir();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // =============================
+    // ÍNDICES
+    // =============================
+
+    private Indice indiceAtual() {
+        return indices.getOrDefault(TenantContext.getTenantId(), Indice.VAZIO);
+    }
+
+    private Indice indice(String tenant) {
+        return indices.computeIfAbsent(tenant, t -> new Indice());
+    }
+
+    private int vivos() {
+        return indices.values().stream().mapToInt(i -> i.slots.size()).sum();
+    }
+
+    private int limite() {
+        return Math.min(maximoRegistros, MAX_REGISTROS);
+    }
+
+    // slot < MAX_REGISTROS: a conta em long sempre cabe em int
+    private static int posicao(int slot) {
+        return Math.toIntExact(CABECALHO + (long) slot * TAMANHO_REGISTRO);
+    }
+
+    // Celulares do contato já normalizados (o principal e os adicionais do tipo CELULAR)
+    private static List<String> celulares(Contato contato) {
+        List<String> celulares = new ArrayList<>();
+        String principal = TelefoneUtils.normalizar(contato.getCelular());
+        if (principal != null) {
+            celulares.add(principal);
+        }
+        for (ContatoTelefone telefone : adicionais(contato)) {
+            if (telefone.getTipo() == TipoTelefone.CELULAR && !celulares.contains(telefone.getNumeroNormalizado())) {
+                celulares.add(telefone.getNumeroNormalizado());
+            }
+        }
+        return celulares;
+    }
+
+    // Números além do celular e do telefone principais
+    private static List<ContatoTelefone> adicionais(Contato contato) {
+        if (contato.getTelefones() == null) {
+            return List.of();
+        }
+        String celular = TelefoneUtils.normalizar(contato.getCelular());
+        String telefone = TelefoneUtils.normalizar(contato.getTelefone());
+        return contato.getTelefones().stream()
+                .filter(t -> t.getNumeroNormalizado() != null)
+                .filter(t -> !t.getNumeroNormalizado().equals(celular) && !t.getNumeroNormalizado().equals(telefone))
+                .toList();
+    }
+
+    private record Entrada(int slot, boolean ativo, boolean favorito, List<String> celulares) {
+    }
+
+    // Índices de um tenant: ID -> registro (ordenado, como o "order by id" das listagens) e celular -> ID,
+    // com os contadores mantidos a cada gravação para os countBy* não precisarem varrer nada
+    private static final class Indice {
+
+        static final Indice VAZIO = new Indice();
+
+        final NavigableMap<Long, Entrada> slots = new TreeMap<>();
+        final Map<String, Long> celulares = new HashMap<>();
+        long ativos;
+        long favoritosAtivos;
+
+        void adicionar(long id, Entrada entrada) {
+            slots.put(id, entrada);
+            entrada.celulares().forEach(c -> celulares.put(c, id));
+            contar(entrada, 1);
+        }
+
+        void remover(long id) {
+            Entrada anterior = slots.remove(id);
+            if (anterior != null) {
+                anterior.celulares().forEach(c -> celulares.remove(c, id));
+                contar(anterior, -1);
+            }
+        }
+
+        private void contar(Entrada entrada, int delta) {
+            if (entrada.ativo()) {
+                ativos += delta;
+                if (entrada.favorito()) {
+                    favoritosAtivos += delta;
+                }
+            }
+        }
+    }
+}
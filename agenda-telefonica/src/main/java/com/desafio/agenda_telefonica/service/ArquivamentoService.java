@@ -0,0 +1,332 @@
+package com.desafio.agenda_telefonica.service;
+
+import com.desafio.agenda_telefonica.dto.ContatoInativoDTO;
+import com.desafio.agenda_telefonica.evento.ContatoAlteradoEvent;
+import com.desafio.agenda_telefonica.evento.ContatoSnapshot;
+import com.desafio.agenda_telefonica.exception.CelularDuplicadoException;
+import com.desafio.agenda_telefonica.exception.ContatoNaoEncontradoException;
+import com.desafio.agenda_telefonica.model.Contato;
+import com.desafio.agenda_telefonica.model.ContatoArquivo;
+import com.desafio.agenda_telefonica.model.ContatoTelefone;
+import com.desafio.agenda_telefonica.model.Tag;
+import com.desafio.agenda_telefonica.model.TipoAlteracao;
+import com.desafio.agenda_telefonica.model.TipoTelefone;
+import com.desafio.agenda_telefonica.repository.ContatoArquivoRepository;
+import com.desafio.agenda_telefonica.repository.ContatoDuplicidadeRepository;
+import com.desafio.agenda_telefonica.repository.ContatoRepository;
+import com.desafio.agenda_telefonica.tenant.TenancyProperties;
+import com.desafio.agenda_telefonica.tenant.TenantContext;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Arquivamento dos contatos inativos há mais de agenda.arquivamento.dias: saem da tabela contato
+// (e de contato_telefone/contato_tag) para contato_arquivo, mantendo a tabela quente pequena.
+//
+// Cada lote é um INSERT ... SELECT seguido dos DELETEs, na sua própria transação e com uma pausa entre lotes,
+// para não segurar locks nem disputar I/O com as gravações da API. Tudo em SQL nativo pelo EntityManager,
+// que usa a conexão do tenant (schema próprio, quando houver).
+// As linhas do lote ficam travadas (FOR UPDATE) do SELECT ao DELETE: um contato reativado no meio do caminho
+// ou já é visto ativo pelo SELECT, ou espera o lote terminar. Só sai de contato o que foi de fato copiado.
+@Service
+@Profile("!edge")
+public class ArquivamentoService {
+
+    private static final Logger log = LoggerFactory.getLogger(ArquivamentoService.class);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ContatoRepository contatoRepository;
+
+    @Autowired
+    private ContatoArquivoRepository arquivoRepository;
+
+    @Autowired
+    private ContatoDuplicidadeRepository duplicidadeRepository;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private TenancyProperties tenancyProperties;
+
+    @Autowired
+    private ApplicationEventPublisher eventos;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Inativos há mais que isso vão para o arquivo
+    @Value("${agenda.arquivamento.dias:180}")
+    private int dias;
+
+    @Value("${agenda.arquivamento.lote:500}")
+    private int tamanhoLote;
+
+    // Pausa entre lotes (0 = sem pausa)
+    @Value("${agenda.arquivamento.pausa-ms:200}")
+    private long pausaMs;
+
+    // =============================
+    // ARQUIVAMENTO
+    // =============================
+
+    @Scheduled(cron = "${agenda.arquivamento.cron:0 0 3 * * *}")
+    public void arquivar() {
+        Instant limite = Instant.now().minus(Duration.ofDays(dias));
+        for (String tenant : tenants(limite)) {
+            TenantContext.setTenantId(tenant);
+            try {
+                long arquivados = arquivarDoTenant(limite);
+                if (arquivados > 0) {
+                    log.info("Arquivamento: {} contatos do tenant {} inativos desde antes de {}", arquivados, tenant, limite);
+                }
+            } catch (RuntimeException e) {
+                log.error("Falha no arquivamento do tenant {}", tenant, e);
+            } finally {
+                TenantContext.limpar();
+            }
+        }
+    }
+
+    // Tenants com inativos antigos no schema padrão, mais os que têm schema próprio
+    private Set<String> tenants(Instant limite) {
+        Set<String> tenants = new LinkedHashSet<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            List<?> doSchemaPadrao = entityManager.createNativeQuery(
+                            "select distinct tenant_id from contato where ativo = false "
+                                    + "and (inativado_em < :limite or inativado_em is null)")
+                    .setParameter("limite", limite)
+                    .getResultList();
+            doSchemaPadrao.forEach(tenant -> tenants.add((String) tenant));
+        });
+        tenants.addAll(tenancyProperties.getSchemas().keySet());
+        return tenants;
+    }
+
+    long arquivarDoTenant(Instant limite) {
+        String tenant = TenantContext.getTenantId();
+
+        // Inativados antes de existir a coluna: o prazo começa a contar na primeira execução
+        transactionTemplate.executeWithoutResult(status -> entityManager.createNativeQuery(
+                        "update contato set inativado_em = :agora "
+                                + "where tenant_id = :tenant and ativo = false and inativado_em is null")
+                .setParameter("agora", Instant.now())
+                .setParameter("tenant", tenant)
+                .executeUpdate());
+
+        long total = 0;
+        int lote;
+        do {
+            lote = transactionTemplate.execute(status -> arquivarLote(tenant, limite));
+            total += lote;
+            if (lote == tamanhoLote) {
+                pausar();
+            }
+        } while (lote == tamanhoLote);
+        return total;
+    }
+
+    private int arquivarLote(String tenant, Instant limite) {
+        // SKIP LOCKED: linha travada por uma gravação da API fica para o próximo lote (ou a próxima noite)
+        @SuppressWarnings("unchecked")
+        List<Number> encontrados = entityManager.createNativeQuery(
+                        "select id from contato where tenant_id = :tenant and ativo = false and inativado_em < :limite "
+                                + "order by id limit :lote for update skip locked")
+                .setParameter("tenant", tenant)
+                .setParameter("limite", limite)
+                .setParameter("lote", tamanhoLote)
+                .getResultList();
+        if (encontrados.isEmpty()) {
+            return 0;
+        }
+        List<Long> candidatos = encontrados.stream().map(Number::longValue).toList();
+
+        // O critério se repete aqui: o que deixou de valer não é copiado (nem apagado abaixo)
+        entityManager.createNativeQuery(
+                        "insert into contato_arquivo (id, tenant_id, nome, telefone, celular, email, favorito, "
+                                + "inativado_em, arquivado_em) "
+                                + "select c.id, c.tenant_id, c.nome, c.telefone, c.celular, c.email, c.favorito, "
+                                + "c.inativado_em, :agora "
+                                + "from contato c where c.id in (:ids) and c.ativo = false and c.inativado_em < :limite")
+                .setParameter("agora", Instant.now())
+                .setParameter("ids", candidatos)
+                .setParameter("limite", limite)
+                .executeUpdate();
+        @SuppressWarnings("unchecked")
+        List<Number> copiados = entityManager.createNativeQuery(
+                        "select id from contato_arquivo where id in (:ids) order by id")
+                .setParameter("ids", candidatos)
+                .getResultList();
+        List<Long> ids = copiados.stream().map(Number::longValue).toList();
+        if (ids.isEmpty()) {
+            return candidatos.size();
+        }
+
+        entityManager.createNativeQuery(
+                        "insert into contato_arquivo_telefone (contato_id, tipo, numero) "
+                                + "select contato_id, tipo, numero from contato_telefone where contato_id in (:ids)")
+                .setParameter("ids", ids)
+                .executeUpdate();
+        entityManager.createNativeQuery(
+                        "insert into contato_arquivo_tag (contato_id, nome) "
+                                + "select ct.contato_id, g.nome from contato_tag ct join tag g on g.id = ct.tag_id "
+                                + "where ct.contato_id in (:ids)")
+                .setParameter("ids", ids)
+                .executeUpdate();
+
+        // Contadores das tags (o mesmo que o TagService faria contato a contato)
+        entityManager.createNativeQuery(
+                        "update tag set total_contatos = total_contatos - "
+                                + "(select count(*) from contato_tag ct where ct.tag_id = tag.id and ct.contato_id in (:ids)) "
+                                + "where id in (select tag_id from contato_tag where contato_id in (:ids))")
+                .setParameter("ids", ids)
+                .executeUpdate();
+
+        for (String tabela : List.of("contato_tag", "contato_telefone")) {
+            entityManager.createNativeQuery("delete from " + tabela + " where contato_id in (:ids)")
+                    .setParameter("ids", ids)
+                    .executeUpdate();
+        }
+        entityManager.createNativeQuery("delete from contato where id in (:ids) and ativo = false")
+                .setParameter("ids", ids)
+                .executeUpdate();
+        duplicidadeRepository.apagarEnvolvendo(ids);
+
+        Instant agora = Instant.now();
+        for (Long id : ids) {
+            eventos.publishEvent(new ContatoAlteradoEvent(TipoAlteracao.ARQUIVADO, id, tenant, agora,
+                    Map.of("arquivado", List.of(false, true))));
+        }
+        // O lote conta os candidatos, não os copiados: um lote cheio de reativados não encerra o tenant antes da hora
+        return candidatos.size();
+    }
+
+    private void pausar() {
+        if (pausaMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pausaMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // =============================
+    // RESTAURAÇÃO
+    // =============================
+
+    // Volta para a tabela contato com o mesmo ID, ainda inativo (ativar é uma decisão à parte).
+    // inativado_em recomeça agora, senão o próximo arquivamento levaria o contato de volta na mesma noite.
+    @Transactional
+    public Contato restaurar(Long id) {
+        ContatoArquivo arquivo = arquivoRepository.findById(id)
+                .orElseThrow(() -> new ContatoNaoEncontradoException(id));
+
+        List<ContatoTelefone> telefones = arquivo.getTelefones().stream()
+                .map(t -> new ContatoTelefone(t.getTipo(), t.getNumero()))
+                .toList();
+        List<String> celulares = telefones.stream()
+                .filter(t -> t.getTipo() == TipoTelefone.CELULAR)
+                .map(ContatoTelefone::getNumeroNormalizado)
+                .toList();
+        if (!celulares.isEmpty() && !contatoRepository.findContatoIdsPorCelulares(celulares).isEmpty()) {
+            throw new CelularDuplicadoException();
+        }
+
+        entityManager.createNativeQuery(
+                        "insert into contato (id, tenant_id, nome, telefone, celular, email, favorito, ativo, inativado_em) "
+                                + "values (:id, :tenant, :nome, :telefone, :celular, :email, :favorito, false, :inativadoEm)")
+                .setParameter("id", arquivo.getId())
+                .setParameter("tenant", TenantContext.getTenantId())
+                .setParameter("nome", arquivo.getNome())
+                .setParameter("telefone", arquivo.getTelefone())
+                .setParameter("celular", arquivo.getCelular())
+                .setParameter("email", arquivo.getEmail())
+                .setParameter("favorito", arquivo.isFavorito())
+                .setParameter("inativadoEm", Instant.now())
+                .executeUpdate();
+
+        Contato contato = contatoRepository.findById(id)
+                .orElseThrow(() -> new ContatoNaoEncontradoException(id));
+        for (ContatoTelefone telefone : telefones) {
+            telefone.setContato(contato);
+            contato.getTelefones().add(telefone);
+        }
+
+        Set<Tag> tags = tagService.resolver(arquivo.getTags().stream().map(Tag::new).collect(Collectors.toSet()));
+        contato.getTags().addAll(tags);
+        tagService.atualizarContadores(Set.of(), tags);
+
+        arquivoRepository.delete(arquivo);
+        Contato salvo = contatoRepository.save(contato);
+        eventos.publishEvent(new ContatoAlteradoEvent(TipoAlteracao.RESTAURADO, id, TenantContext.getTenantId(),
+                Instant.now(), ContatoSnapshot.diferencas(null, ContatoSnapshot.de(salvo))));
+        return salvo;
+    }
+
+    // =============================
+    // CONSULTA
+    // =============================
+
+    // Inativos da tabela quente e do arquivo numa só paginação, em ordem de ID.
+    // A consulta de união traz só (id, arquivado); as linhas da página são carregadas depois, por ID.
+    @Transactional(readOnly = true)
+    public Page<ContatoInativoDTO> listarInativos(Pageable pageable) {
+        String tenant = TenantContext.getTenantId();
+        @SuppressWarnings("unchecked")
+        List<Object[]> linhas = entityManager.createNativeQuery(
+                        "select id, arquivado from ("
+                                + "select id, false as arquivado from contato where tenant_id = :tenant and ativo = false "
+                                + "union all "
+                                + "select id, true as arquivado from contato_arquivo where tenant_id = :tenant"
+                                + ") inativos order by id")
+                .setParameter("tenant", tenant)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        List<Long> quentes = new ArrayList<>();
+        List<Long> arquivados = new ArrayList<>();
+        for (Object[] linha : linhas) {
+            long id = ((Number) linha[0]).longValue();
+            (Boolean.TRUE.equals(linha[1]) ? arquivados : quentes).add(id);
+        }
+
+        Map<Long, ContatoInativoDTO> dtos = new HashMap<>();
+        dtos.putAll(porId(contatoRepository.findAllById(quentes), ContatoInativoDTO::de));
+        dtos.putAll(porId(arquivoRepository.findAllById(arquivados), ContatoInativoDTO::de));
+
+        List<ContatoInativoDTO> pagina = linhas.stream()
+                .map(linha -> dtos.get(((Number) linha[0]).longValue()))
+                .filter(Objects::nonNull)
+                .toList();
+        long total = contatoRepository.countByAtivoFalse() + arquivoRepository.count();
+        return new PageImpl<>(pagina, pageable, total);
+    }
+
+    private static <T> Map<Long, ContatoInativoDTO> porId(List<T> entidades, Function<T, ContatoInativoDTO> paraDto) {
+        return entidades.stream().map(paraDto).collect(Collectors.toMap(ContatoInativoDTO::id, dto -> dto));
+    }
+}
@@ -0,0 +1,154 @@
+package com.desafio.agenda_telefonica.service;
+
+import com.desafio.agenda_telefonica.evento.ContatoAlteradoEvent;
+import com.desafio.agenda_telefonica.model.ContatoEvento;
+import com.desafio.agenda_telefonica.repository.ContatoEventoRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Function;
+
+@Service
+@Profile("!edge")
+public class AuditoriaService {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditoriaService.class);
+
+    public static final String HEADER_USUARIO = "X-Usuario";
+
+    private static final int TAMANHO_PAGINA = 500;
+
+    @Autowired
+    private ContatoEventoRepository repository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${agenda.auditoria.retencao-dias:365}")
+    private int retencaoDias;
+
+    @Value("${agenda.auditoria.retencao.lote:1000}")
+    private int loteRetencao;
+
+    // =============================
+    // GRAVAÇÃO
+    // =============================
+
+    // Listener síncrono: roda na mesma transação da alteração do contato (se falhar, a alteração é desfeita)
+    @EventListener
+    public void registrar(ContatoAlteradoEvent evento) {
+        repository.save(new ContatoEvento(evento.contatoId(), evento.tipo(), usuarioAtual(), evento.ocorridoEm(),
+                paraJson(evento)));
+    }
+
+    // =============================
+    // CONSULTA (streaming em NDJSON)
+    // =============================
+
+    public void exportarHistorico(Long contatoId, OutputStream saida) throws IOException {
+        exportar(saida, ultimoId -> repository.findByContatoIdAndIdGreaterThanOrderByIdAsc(
+                contatoId, ultimoId, Limit.of(TAMANHO_PAGINA)));
+    }
+
+    public void exportarPeriodo(Instant de, Instant ate, OutputStream saida) throws IOException {
+        exportar(saida, ultimoId -> repository
+                .findByOcorridoEmGreaterThanEqualAndOcorridoEmLessThanAndIdGreaterThanOrderByIdAsc(
+                        de, ate, ultimoId, Limit.of(TAMANHO_PAGINA)));
+    }
+
+    // Lê em páginas por chave e escreve cada evento numa linha, sem montar a lista inteira em memória
+    private void exportar(OutputStream saida, Function<Long, List<ContatoEvento>> proximaPagina) throws IOException {
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(saida)) {
+            gen.setRootValueSeparator(null);
+            long ultimoId = 0;
+            List<ContatoEvento> pagina;
+            do {
+                pagina = proximaPagina.apply(ultimoId);
+                for (ContatoEvento evento : pagina) {
+                    escrever(gen, evento);
+                    ultimoId = evento.getId();
+                }
+                gen.flush();
+            } while (pagina.size() == TAMANHO_PAGINA);
+        }
+    }
+
+    private static void escrever(JsonGenerator gen, ContatoEvento evento) throws IOException {
+        gen.writeStartObject();
+        gen.writeNumberField("id", evento.getId());
+        gen.writeNumberField("contatoId", evento.getContatoId());
+        gen.writeStringField("tipo", evento.getTipo().name());
+        gen.writeStringField("usuario", evento.getUsuario());
+        gen.writeStringField("ocorridoEm", evento.getOcorridoEm().toString());
+        gen.writeFieldName("alteracoes");
+        gen.writeRawValue(evento.getAlteracoes());
+        gen.writeEndObject();
+        gen.writeRaw('\n');
+    }
+
+    // =============================
+    // RETENÇÃO
+    // =============================
+
+    // Apaga em lotes curtos, cada um na sua transação, para não segurar locks que atrasem as gravações
+    @Scheduled(cron = "${agenda.auditoria.retencao.cron:0 30 2 * * *}")
+    public void aplicarRetencao() {
+        Instant limite = Instant.now().minus(Duration.ofDays(retencaoDias));
+        long apagados = 0;
+        int lote;
+        do {
+            lote = transactionTemplate.execute(status -> {
+                List<Long> ids = repository.findIdsAnterioresA(limite, loteRetencao);
+                return ids.isEmpty() ? 0 : repository.apagarPorIds(ids);
+            });
+            apagados += lote;
+        } while (lote == loteRetencao);
+
+        if (apagados > 0) {
+            log.info("Retenção da auditoria: {} eventos anteriores a {} apagados", apagados, limite);
+        }
+    }
+
+    // =============================
+    // UTILITÁRIOS
+    // =============================
+
+    private String paraJson(ContatoAlteradoEvent evento) {
+        try {
+            return objectMapper.writeValueAsString(evento.alteracoes());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar alterações do contato " + evento.contatoId(), e);
+        }
+    }
+
+    private static String usuarioAtual() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes atributos) {
+            String usuario = atributos.getRequest().getHeader(HEADER_USUARIO);
+            if (usuario != null && !usuario.isBlank()) {
+                return usuario.length() > 100 ? usuario.substring(0, 100) : usuario;
+            }
+        }
+        return "sistema";
+    }
+}
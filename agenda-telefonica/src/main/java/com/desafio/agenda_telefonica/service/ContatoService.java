@@ -1,31 +1,89 @@
 package com.desafio.agenda_telefonica.service;
 
+import com.desafio.agenda_telefonica.dto.ContatoInativoDTO;
+import com.desafio.agenda_telefonica.evento.ContatoAlteradoEvent;
+import com.desafio.agenda_telefonica.evento.ContatoSnapshot;
+import com.desafio.agenda_telefonica.exception.CelularDuplicadoException;
+import com.desafio.agenda_telefonica.exception.ContatoNaoEncontradoException;
+import com.desafio.agenda_telefonica.exception.RecursoNaoSuportadoException;
+import com.desafio.agenda_telefonica.exception.RestricaoUnica;
 import com.desafio.agenda_telefonica.model.Contato;
-import com.desafio.agenda_telefonica.repository.ContatoRepository;
+import com.desafio.agenda_telefonica.model.ContatoTelefone;
+import com.desafio.agenda_telefonica.model.Tag;
+import com.desafio.agenda_telefonica.model.TipoAlteracao;
+import com.desafio.agenda_telefonica.model.TipoTelefone;
+import com.desafio.agenda_telefonica.repository.ContatoArmazenamento;
+import com.desafio.agenda_telefonica.repository.ContatoFiltro;
+import com.desafio.agenda_telefonica.tenant.TenantContext;
+import com.desafio.agenda_telefonica.util.TelefoneUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-import java.util.Optional;
+import java.time.Instant;
+import java.util.*;
 
 @Service
 public class ContatoService {
 
+    // JPA (ContatoRepository) ou, no profile edge, o armazenamento embarcado em arquivo mapeado
     @Autowired
-    private ContatoRepository repository;
+    private ContatoArmazenamento repository;
+
+    // Ausente no profile edge (sem banco): tags não são suportadas lá
+    @Autowired(required = false)
+    private TagService tagService;
+
+    // Ausente no profile edge: lá não há tabela de arquivo, os inativos ficam todos no armazenamento
+    @Autowired(required = false)
+    private ArquivamentoService arquivamento;
+
+    @Autowired
+    private ApplicationEventPublisher eventos;
+
+    // Campos aceitos no sort da listagem, todos com índice (ver Contato)
+    private static final Set<String> ORDENAVEIS = Set.of("nome", "email", "id");
+
+    // Por quanto tempo o total estimado da listagem (X-Total-Count) é reaproveitado
+    @Value("${agenda.listagem.contagem-ttl-ms:30000}")
+    private long contagemTtlMs;
+
+    // Totais guardados (tenant x filtro); passou disso, sai o usado há mais tempo
+    @Value("${agenda.listagem.contagem-maximo:1000}")
+    private int maximoContagens;
+
+    private final Map<List<Object>, Contagem> contagens = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<List<Object>, Contagem> maisAntiga) {
+                    return size() > maximoContagens;
+                }
+            });
 
     // =============================
     // CRUD BÁSICO
     // =============================
 
     // SALVAR
+    @Transactional
     public Contato salvar(Contato contato) {
         if (contato.getCelular() == null || contato.getCelular().isBlank()) {
             throw new IllegalArgumentException("Celular não pode estar vazio");
         }
 
-        validarCelularUnico(contato.getCelular(), contato.getId());
+        // POST com ID de contato existente funciona como atualização
+        if (contato.getId() != null && repository.findById(contato.getId()).isPresent()) {
+            return atualizar(contato.getId(), contato);
+        }
 
         // Normaliza telefone vazio pra null (mas não interfere em nada)
         if (contato.getTelefone() != null && contato.getTelefone().isBlank()) {
@@ -35,8 +93,15 @@ public class ContatoService {
         if (contato.getId() == null) {
             contato.setAtivo(true);
         }
+        contato.setInativadoEm(contato.isAtivo() ? null : Instant.now());
+
+        sincronizarTelefones(contato, contato.getTelefones());
+        contato.setTags(resolverTags(contato.getTags()));
 
-        return repository.save(contato);
+        Contato salvo = gravar(contato);
+        atualizarContadoresTags(Set.of(), contato.getTags());
+        publicar(TipoAlteracao.CRIADO, salvo.getId(), null, ContatoSnapshot.de(salvo));
+        return salvo;
     }
 
 
@@ -52,27 +117,46 @@ public class ContatoService {
     }
 
     // Atualizar contato
+    @Transactional
     public Contato atualizar(Long id, Contato contato) {
         Contato existente = repository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Contato não encontrado com ID: " + id));
+                .orElseThrow(() -> new ContatoNaoEncontradoException(id));
+        ContatoSnapshot antes = ContatoSnapshot.de(existente);
 
-        validarCelularUnico(contato.getCelular(), id);
+        // Sem a lista de telefones na requisição, preserva os números adicionais já cadastrados
+        List<ContatoTelefone> adicionais = contato.getTelefones() != null
+                ? contato.getTelefones()
+                : telefonesAdicionais(existente);
 
         existente.setNome(contato.getNome());
         existente.setTelefone(contato.getTelefone());
         existente.setCelular(contato.getCelular());
         existente.setEmail(contato.getEmail());
         existente.setFavorito(contato.isFavorito());
-        existente.setAtivo(contato.isAtivo());
+        definirAtivo(existente, contato.isAtivo());
+        sincronizarTelefones(existente, adicionais);
+
+        // Tags só são substituídas quando vierem na requisição
+        if (contato.getTags() != null) {
+            Set<Tag> tagsAnteriores = copiar(existente.getTags());
+            existente.setTags(resolverTags(contato.getTags()));
+            atualizarContadoresTags(tagsAnteriores, existente.getTags());
+        }
 
-        return repository.save(existente);
+        Contato salvo = gravar(existente);
+        publicar(TipoAlteracao.ATUALIZADO, id, antes, ContatoSnapshot.de(salvo));
+        return salvo;
     }
 
     // Deletar contato
+    @Transactional
     public void deletarPorId(Long id) {
         Contato contato = repository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Contato não encontrado com ID: " + id));
+                .orElseThrow(() -> new ContatoNaoEncontradoException(id));
+        atualizarContadoresTags(contato.getTags(), Set.of());
+        ContatoSnapshot antes = ContatoSnapshot.de(contato);
         repository.delete(contato);
+        publicar(TipoAlteracao.REMOVIDO, id, antes, null);
     }
 
     // =============================
@@ -80,34 +164,48 @@ public class ContatoService {
     // =============================
 
     // Inativar contato
+    @Transactional
     public void inativar(Long id) {
         Contato contato = repository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Contato não encontrado com ID: " + id));
-        contato.setAtivo(false);
+                .orElseThrow(() -> new ContatoNaoEncontradoException(id));
+        ContatoSnapshot antes = ContatoSnapshot.de(contato);
+        definirAtivo(contato, false);
         repository.save(contato);
+        publicar(TipoAlteracao.INATIVADO, id, antes, ContatoSnapshot.de(contato));
     }
 
+    @Transactional
     public void ativar(Long id) {
         Contato contato = repository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Contato não encontrado com ID: " + id));
-        contato.setAtivo(true);
+                .orElseThrow(() -> new ContatoNaoEncontradoException(id));
+        ContatoSnapshot antes = ContatoSnapshot.de(contato);
+        definirAtivo(contato, true);
         repository.save(contato);
+        publicar(TipoAlteracao.ATIVADO, id, antes, ContatoSnapshot.de(contato));
     }
 
      // Favoritar um contato
+    @Transactional
     public Contato favoritar(Long id) {
         Contato contato = repository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Contato não encontrado"));
+                .orElseThrow(() -> new ContatoNaoEncontradoException(id));
+        ContatoSnapshot antes = ContatoSnapshot.de(contato);
         contato.setFavorito(true);
-        return repository.save(contato);
+        Contato salvo = repository.save(contato);
+        publicar(TipoAlteracao.FAVORITADO, id, antes, ContatoSnapshot.de(contato));
+        return salvo;
     }
 
     // Desfavoritar um contato
+    @Transactional
     public Contato desfavoritar(Long id) {
         Contato contato = repository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Contato não encontrado"));
+                .orElseThrow(() -> new ContatoNaoEncontradoException(id));
+        ContatoSnapshot antes = ContatoSnapshot.de(contato);
         contato.setFavorito(false);
-        return repository.save(contato);
+        Contato salvo = repository.save(contato);
+        publicar(TipoAlteracao.DESFAVORITADO, id, antes, ContatoSnapshot.de(contato));
+        return salvo;
     }
 
     // Listar contatos favoritos ativos
@@ -119,6 +217,66 @@ public class ContatoService {
         return repository.findByAtivoFalse();
     }
 
+    // Inativos paginados em ordem de ID, incluindo os já movidos para o arquivo
+    public Page<ContatoInativoDTO> listarInativos(Pageable pageable) {
+        if (arquivamento != null) {
+            return arquivamento.listarInativos(pageable);
+        }
+        List<ContatoInativoDTO> inativos = repository.findByAtivoFalse().stream()
+                .sorted(Comparator.comparing(Contato::getId))
+                .map(ContatoInativoDTO::de)
+                .toList();
+        int inicio = (int) Math.min(pageable.getOffset(), inativos.size());
+        int fim = Math.min(inicio + pageable.getPageSize(), inativos.size());
+        return new PageImpl<>(inativos.subList(inicio, fim), pageable, inativos.size());
+    }
+
+    // Listagem com filtros e ordenação. O total da página é estimado (ContatoArmazenamento.estimar, sem count(*)
+    // da tabela) e reaproveitado por agenda.listagem.contagem-ttl-ms para o mesmo filtro
+    @Transactional(readOnly = true)
+    public Page<Contato> listar(ContatoFiltro filtro, Pageable pageable) {
+        Pageable ordenado = ordenar(pageable);
+        Slice<Contato> pagina = repository.listar(filtro, ordenado);
+        return new PageImpl<>(pagina.getContent(), ordenado, estimarTotal(filtro));
+    }
+
+    // Só campos indexados; o id no fim desempata nomes iguais e mantém a paginação estável
+    private static Pageable ordenar(Pageable pageable) {
+        Sort sort = pageable.getSort().isSorted() ? pageable.getSort() : Sort.by("nome");
+        for (Sort.Order ordem : sort) {
+            if (!ORDENAVEIS.contains(ordem.getProperty())) {
+                throw new IllegalArgumentException("Ordenação não suportada: " + ordem.getProperty()
+                        + " (use nome, email ou id)");
+            }
+        }
+        if (sort.getOrderFor("id") == null) {
+            sort = sort.and(Sort.by("id"));
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+    }
+
+    private long estimarTotal(ContatoFiltro filtro) {
+        List<Object> chave = List.of(TenantContext.getTenantId(), filtro);
+        long agora = System.currentTimeMillis();
+        Contagem contagem = contagens.get(chave);
+        if (contagem == null || contagem.expiraEm() <= agora) {
+            contagem = new Contagem(repository.estimar(filtro), agora + contagemTtlMs);
+            contagens.put(chave, contagem);
+        }
+        return contagem.total();
+    }
+
+    private record Contagem(long total, long expiraEm) {
+    }
+
+    // Contatos de uma tag, paginados; o total da página vem do contador mantido na tabela tag
+    @Transactional(readOnly = true)
+    public Page<Contato> listarPorTag(String tag, Pageable pageable) {
+        long total = tags().totalPorTag(tag);
+        Slice<Contato> pagina = repository.findByTags_Nome(Tag.normalizar(tag), pageable);
+        return new PageImpl<>(pagina.getContent(), pageable, total);
+    }
+
     // =============================
     // UTILITÁRIOS
     // =============================
@@ -140,17 +298,157 @@ public class ContatoService {
         return repository.countByFavoritoTrueAndAtivoTrue();
     }
 
+    public long totalPorTag(String tag) {
+        return tags().totalPorTag(tag);
+    }
+
+    // =============================
+    // TAGS
+    // =============================
+
+    private TagService tags() {
+        if (tagService == null) {
+            throw new RecursoNaoSuportadoException("Tags não são suportadas neste armazenamento");
+        }
+        return tagService;
+    }
+
+    private Set<Tag> resolverTags(Set<Tag> informadas) {
+        if (tagService == null) {
+            if (informadas != null && !informadas.isEmpty()) {
+                tags();
+            }
+            return new HashSet<>();
+        }
+        return tagService.resolver(informadas);
+    }
+
+    private void atualizarContadoresTags(Set<Tag> anteriores, Set<Tag> atuais) {
+        if (tagService != null) {
+            tagService.atualizarContadores(anteriores, atuais);
+        }
+    }
+
+    // =============================
+    // EVENTOS
+    // =============================
+
+    // Publica a alteração (auditoria e demais ouvintes) dentro da transação da operação.
+    // Operações que não mudaram nada (ex.: inativar um contato já inativo) não geram evento.
+    private void publicar(TipoAlteracao tipo, Long id, ContatoSnapshot antes, ContatoSnapshot depois) {
+        Map<String, List<Object>> alteracoes = ContatoSnapshot.diferencas(antes, depois);
+        if (alteracoes.isEmpty() && antes != null && depois != null) {
+            return;
+        }
+        eventos.publishEvent(new ContatoAlteradoEvent(tipo, id, TenantContext.getTenantId(), Instant.now(), alteracoes));
+    }
+
     // =============================
     // VALIDAÇÕES
     // =============================
 
-    private void validarCelularUnico(String celular, Long contatoId) {
-        Optional<Contato> existente = repository.findByCelular(celular);
+    // A checagem prévia não cobre duas gravações simultâneas do mesmo celular:
+    // quem perder a corrida cai na constraint unique e recebe o mesmo erro de duplicidade.
+    // Só cobre o que o save grava na hora (inserts, armazenamento embarcado); o que estourar no flush/commit
+    // é traduzido pelo ApiExceptionHandler. Outras violações (ex.: nome nulo) seguem como estão.
+    private Contato gravar(Contato contato) {
+        try {
+            return repository.save(contato);
+        } catch (DataIntegrityViolationException e) {
+            if (RestricaoUnica.violada(e).orElse(null) == RestricaoUnica.CELULAR) {
+                throw new CelularDuplicadoException();
+            }
+            throw e;
+        }
+    }
+
+    // Guarda quando o contato ficou inativo (base do arquivamento); reativado, volta a null
+    private static void definirAtivo(Contato contato, boolean ativo) {
+        if (ativo) {
+            contato.setInativadoEm(null);
+        } else if (contato.isAtivo() || contato.getInativadoEm() == null) {
+            contato.setInativadoEm(Instant.now());
+        }
+        contato.setAtivo(ativo);
+    }
+
+    private static Set<Tag> copiar(Set<Tag> tags) {
+        return tags == null ? new HashSet<>() : new HashSet<>(tags);
+    }
+
+    // Monta a lista de telefones do contato: celular e telefone principais + adicionais, sem repetir número.
+    // Reaproveita as linhas já gravadas com o mesmo número, porque no flush o Hibernate faz os INSERTs
+    // antes dos DELETEs e recriar o mesmo celular violaria a unique.
+    private void sincronizarTelefones(Contato contato, List<ContatoTelefone> adicionais) {
+        Map<String, ContatoTelefone> desejados = new LinkedHashMap<>();
+        incluirTelefone(desejados, TipoTelefone.CELULAR, contato.getCelular());
+        incluirTelefone(desejados, TipoTelefone.FIXO, contato.getTelefone());
+        if (adicionais != null) {
+            for (ContatoTelefone telefone : adicionais) {
+                incluirTelefone(desejados, telefone.getTipo(), telefone.getNumero());
+            }
+        }
+
+        if (!desejados.containsKey(TelefoneUtils.normalizar(contato.getCelular()))) {
+            throw new IllegalArgumentException("Celular inválido: " + contato.getCelular());
+        }
+
+        validarCelularesUnicos(desejados.values(), contato.getId());
+
+        Map<String, ContatoTelefone> atuais = new HashMap<>();
+        if (contato.getTelefones() != null) {
+            for (ContatoTelefone telefone : contato.getTelefones()) {
+                atuais.putIfAbsent(telefone.getNumeroNormalizado(), telefone);
+            }
+        }
+
+        List<ContatoTelefone> resultado = new ArrayList<>(desejados.size());
+        for (Map.Entry<String, ContatoTelefone> entrada : desejados.entrySet()) {
+            ContatoTelefone telefone = atuais.getOrDefault(entrada.getKey(), entrada.getValue());
+            telefone.setTipo(entrada.getValue().getTipo());
+            telefone.setNumero(entrada.getValue().getNumero());
+            telefone.setContato(contato);
+            resultado.add(telefone);
+        }
+
+        // Altera a coleção no lugar: trocar a referência quebra o orphanRemoval da entidade gerenciada
+        if (contato.getTelefones() == null) {
+            contato.setTelefones(new ArrayList<>());
+        }
+        contato.getTelefones().clear();
+        contato.getTelefones().addAll(resultado);
+    }
+
+    private static void incluirTelefone(Map<String, ContatoTelefone> telefones, TipoTelefone tipo, String numero) {
+        String normalizado = TelefoneUtils.normalizar(numero);
+        if (normalizado != null) {
+            telefones.putIfAbsent(normalizado, new ContatoTelefone(tipo == null ? TipoTelefone.OUTRO : tipo, numero));
+        }
+    }
+
+    // Números já cadastrados além do celular e do telefone principais
+    private static List<ContatoTelefone> telefonesAdicionais(Contato contato) {
+        if (contato.getTelefones() == null) {
+            return List.of();
+        }
+        String celular = TelefoneUtils.normalizar(contato.getCelular());
+        String telefone = TelefoneUtils.normalizar(contato.getTelefone());
+        return contato.getTelefones().stream()
+                .filter(t -> !t.getNumeroNormalizado().equals(celular) && !t.getNumeroNormalizado().equals(telefone))
+                .toList();
+    }
+
+    // Uma única consulta no índice único de celulares, cobrindo todos os celulares do contato
+    private void validarCelularesUnicos(Collection<ContatoTelefone> telefones, Long contatoId) {
+        List<String> celulares = telefones.stream()
+                .filter(t -> t.getTipo() == TipoTelefone.CELULAR)
+                .map(ContatoTelefone::getNumeroNormalizado)
+                .toList();
 
-        if (existente.isPresent()) {
+        for (Long dono : repository.findContatoIdsPorCelulares(celulares)) {
             // Se é novo ou está tentando usar o número de outro contato
-            if (contatoId == null || !existente.get().getId().equals(contatoId)) {
-                throw new IllegalArgumentException("Celular já cadastrado!");
+            if (contatoId == null || !dono.equals(contatoId)) {
+                throw new CelularDuplicadoException();
             }
         }
     }
@@ -0,0 +1,354 @@
+package com.desafio.agenda_telefonica.service;
+
+import com.desafio.agenda_telefonica.evento.ContatoAlteradoEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Push das alterações de contatos por Server-Sent Events (GET /api/contatos/stream), no lugar do polling.
+//
+// Um assinante ocioso é só um SseEmitter (requisição assíncrona, sem thread presa) e uma fila vazia.
+// Cada evento é serializado uma vez e entra na fila limitada de cada assinante do tenant; um pool pequeno
+// drena as filas. Quem deixa a fila encher (cliente lento) é desconectado e, ao reconectar com Last-Event-ID,
+// recebe o que perdeu a partir do histórico recente em memória.
+// O envio bloqueia enquanto o buffer do socket estiver cheio, até o timeout de escrita do Tomcat
+// (server.tomcat.connection-timeout), e ignora interrupção. Passado o prazo de envio, o assinante é desconectado
+// e o pool ganha uma thread no lugar da que ficou presa (devolvida quando o envio falhar): um cliente travado
+// não segura os demais.
+// Os ids dos eventos levam a época da subida ("<epoca>-<sequencia>"): um Last-Event-ID de antes de um restart
+// não é confundido com a sequência nova e o cliente recebe "recarregar".
+@Service
+public class ContatoStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(ContatoStreamService.class);
+
+    public static final String EVENTO_CONTATO = "contato";
+
+    // Enviado quando o Last-Event-ID já saiu do histórico (ou é de antes de um restart): o cliente recarrega a lista
+    public static final String EVENTO_RECARREGAR = "recarregar";
+
+    private static final Mensagem CONECTADO = new Mensagem(0, null, null);
+    private static final Mensagem HEARTBEAT = new Mensagem(0, null, null);
+    private static final Mensagem RECARREGAR = new Mensagem(0, null, null);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Mensagens pendentes por assinante; passou disso, o assinante é desconectado
+    @Value("${agenda.stream.buffer:256}")
+    private int capacidadeFila;
+
+    // Eventos guardados para o Last-Event-ID
+    @Value("${agenda.stream.historico:1000}")
+    private int tamanhoHistorico;
+
+    @Value("${agenda.stream.maximo-assinantes:10000}")
+    private int maximoAssinantes;
+
+    @Value("${agenda.stream.threads:4}")
+    private int threads;
+
+    // Tempo máximo de um envio ao cliente; passou disso, o assinante é desconectado
+    @Value("${agenda.stream.envio-timeout-ms:5000}")
+    private long envioTimeoutMs;
+
+    // Threads extras que o pool pode ganhar no lugar de envios presos
+    @Value("${agenda.stream.maximo-envios-presos:64}")
+    private int maximoEnviosPresos;
+
+    private Executor executor;
+
+    private final long epoca = System.currentTimeMillis();
+    private final Map<String, Set<Assinante>> assinantes = new ConcurrentHashMap<>();
+    // Assinantes com um envio em andamento, vigiados pelo prazo de envio
+    private final Set<Assinante> enviando = ConcurrentHashMap.newKeySet();
+    private int enviosPresos;
+    private final ArrayDeque<Mensagem> historico = new ArrayDeque<>();
+    private long sequencia;
+    private int totalAssinantes;
+
+    @PostConstruct
+    public void iniciar() {
+        executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "contato-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        if (executor instanceof ExecutorService servico) {
+            servico.shutdownNow();
+        }
+        assinantes.values().forEach(s -> s.forEach(a -> a.emitter.complete()));
+    }
+
+    // =============================
+    // ASSINATURA
+    // =============================
+
+    // Sem timeout: conexões mortas são detectadas pelo heartbeat
+    public SseEmitter assinar(String tenantId, String ultimoEventoId) {
+        return assinar(new SseEmitter(0L), tenantId, ultimoEventoId);
+    }
+
+    SseEmitter assinar(SseEmitter emitter, String tenantId, String ultimoEventoId) {
+        Assinante assinante = new Assinante(emitter, tenantId, new LinkedBlockingQueue<>(capacidadeFila));
+        emitter.onCompletion(() -> remover(assinante));
+        emitter.onTimeout(() -> remover(assinante));
+        emitter.onError(e -> remover(assinante));
+
+        // Sob o mesmo lock da publicação: nenhum evento cai entre o replay e o registro do assinante
+        synchronized (historico) {
+            if (totalAssinantes >= maximoAssinantes) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Limite de assinantes do stream atingido");
+            }
+            totalAssinantes++;
+            assinantes.computeIfAbsent(tenantId, t -> ConcurrentHashMap.newKeySet()).add(assinante);
+            entregar(assinante, CONECTADO);
+            reenviar(assinante, ultimoEventoId);
+        }
+        return emitter;
+    }
+
+    // Eventos posteriores ao Last-Event-ID, se ainda estiverem no histórico
+    private void reenviar(Assinante assinante, String ultimoEventoId) {
+        if (ultimoEventoId == null || ultimoEventoId.isBlank()) {
+            return;
+        }
+        // Id de outra subida (ou mal formado): a sequência recomeçou, o histórico não serve
+        String[] partes = ultimoEventoId.trim().split("-", 2);
+        long ultimo;
+        try {
+            if (partes.length != 2 || Long.parseLong(partes[0]) != epoca) {
+                entregar(assinante, RECARREGAR);
+                return;
+            }
+            ultimo = Long.parseLong(partes[1]);
+        } catch (NumberFormatException e) {
+            entregar(assinante, RECARREGAR);
+            return;
+        }
+
+        long maisAntigo = historico.isEmpty() ? sequencia + 1 : historico.peekFirst().id();
+        if (ultimo > sequencia || ultimo < maisAntigo - 1) {
+            entregar(assinante, RECARREGAR);
+            return;
+        }
+        for (Mensagem mensagem : historico) {
+            if (mensagem.id() > ultimo && mensagem.tenantId().equals(assinante.tenantId)) {
+                entregar(assinante, mensagem);
+            }
+        }
+    }
+
+    public int totalAssinantes() {
+        synchronized (historico) {
+            return totalAssinantes;
+        }
+    }
+
+    // =============================
+    // PUBLICAÇÃO
+    // =============================
+
+    // Só depois do commit: o cliente que recarregar ao receber o evento já enxerga a alteração
+    @TransactionalEventListener(fallbackExecution = true)
+    public void publicar(ContatoAlteradoEvent evento) {
+        String json = paraJson(evento);
+        synchronized (historico) {
+            Mensagem mensagem = new Mensagem(++sequencia, evento.tenantId(), json);
+            historico.addLast(mensagem);
+            if (historico.size() > tamanhoHistorico) {
+                historico.removeFirst();
+            }
+            for (Assinante assinante : assinantes.getOrDefault(evento.tenantId(), Set.of())) {
+                entregar(assinante, mensagem);
+            }
+        }
+    }
+
+    // Mantém a conexão viva em proxies e revela clientes que sumiram (o envio falha e o assinante sai)
+    @Scheduled(fixedRateString = "${agenda.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Set<Assinante> doTenant : assinantes.values()) {
+            for (Assinante assinante : doTenant) {
+                if (assinante.fila.isEmpty()) {
+                    entregar(assinante, HEARTBEAT);
+                }
+            }
+        }
+    }
+
+    // Cliente que não consome o que já está no socket prende uma thread do pool no send:
+    // passado o prazo, sai dos assinantes e o pool ganha uma thread no lugar da presa
+    @Scheduled(fixedRateString = "${agenda.stream.verificacao-envio-ms:1000}")
+    public void verificarEnvios() {
+        long limite = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(envioTimeoutMs);
+        for (Assinante assinante : enviando) {
+            synchronized (assinante) {
+                long desde = assinante.envioDesde;
+                if (desde == 0 || desde - limite > 0 || assinante.preso) {
+                    continue;
+                }
+                log.debug("Assinante do tenant {} desconectado (envio passou de {} ms)", assinante.tenantId, envioTimeoutMs);
+                remover(assinante);
+                assinante.preso = ajustarPool(1);
+            }
+        }
+    }
+
+    // Cresce (ou devolve) uma thread do pool por envio preso, até o máximo configurado
+    private boolean ajustarPool(int delta) {
+        if (!(executor instanceof ThreadPoolExecutor pool)) {
+            return false;
+        }
+        synchronized (pool) {
+            if (delta > 0 && enviosPresos >= maximoEnviosPresos) {
+                log.warn("Limite de {} envios presos do stream atingido", maximoEnviosPresos);
+                return false;
+            }
+            enviosPresos += delta;
+            if (delta > 0) {
+                pool.setMaximumPoolSize(pool.getMaximumPoolSize() + delta);
+                pool.setCorePoolSize(pool.getCorePoolSize() + delta);
+            } else {
+                pool.setCorePoolSize(pool.getCorePoolSize() + delta);
+                pool.setMaximumPoolSize(pool.getMaximumPoolSize() + delta);
+            }
+            return true;
+        }
+    }
+
+    // =============================
+    // ENVIO
+    // =============================
+
+    private void entregar(Assinante assinante, Mensagem mensagem) {
+        if (assinante.removido) {
+            return;
+        }
+        if (!assinante.fila.offer(mensagem)) {
+            // Quem conclui o emitter é o pool: aqui, sob o lock da publicação, o complete() esperaria o send em andamento
+            log.debug("Assinante lento do tenant {} desconectado (fila cheia)", assinante.tenantId);
+            remover(assinante);
+        }
+        if (assinante.agendado.compareAndSet(false, true)) {
+            executor.execute(() -> drenar(assinante));
+        }
+    }
+
+    private void drenar(Assinante assinante) {
+        enviando.add(assinante);
+        try {
+            Mensagem mensagem;
+            while (!assinante.removido && (mensagem = assinante.fila.poll()) != null) {
+                assinante.envioDesde = System.nanoTime();
+                assinante.emitter.send(evento(mensagem));
+                assinante.envioDesde = 0;
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Cliente desconectou, o emitter já foi concluído ou o timeout de escrita venceu
+            remover(assinante);
+            assinante.emitter.completeWithError(e);
+            return;
+        } finally {
+            enviando.remove(assinante);
+            synchronized (assinante) {
+                assinante.envioDesde = 0;
+                if (assinante.preso) {
+                    assinante.preso = false;
+                    ajustarPool(-1);
+                }
+            }
+            assinante.agendado.set(false);
+        }
+        if (assinante.removido) {
+            assinante.emitter.complete();
+            return;
+        }
+        // Mensagem que chegou entre o último poll e a liberação do flag
+        if (!assinante.fila.isEmpty() && assinante.agendado.compareAndSet(false, true)) {
+            executor.execute(() -> drenar(assinante));
+        }
+    }
+
+    private SseEmitter.SseEventBuilder evento(Mensagem mensagem) {
+        if (mensagem == CONECTADO) {
+            return SseEmitter.event().reconnectTime(3000).comment("conectado");
+        }
+        if (mensagem == HEARTBEAT) {
+            return SseEmitter.event().comment("heartbeat");
+        }
+        if (mensagem == RECARREGAR) {
+            return SseEmitter.event().name(EVENTO_RECARREGAR).data("{}");
+        }
+        return SseEmitter.event().id(idEvento(mensagem.id())).name(EVENTO_CONTATO).data(mensagem.json());
+    }
+
+    String idEvento(long sequencia) {
+        return epoca + "-" + sequencia;
+    }
+
+    private void remover(Assinante assinante) {
+        assinante.removido = true;
+        synchronized (historico) {
+            Set<Assinante> doTenant = assinantes.get(assinante.tenantId);
+            if (doTenant != null && doTenant.remove(assinante)) {
+                totalAssinantes--;
+            }
+        }
+        assinante.fila.clear();
+    }
+
+    private String paraJson(ContatoAlteradoEvent evento) {
+        Map<String, Object> dados = new LinkedHashMap<>();
+        dados.put("tipo", evento.tipo().name());
+        dados.put("contatoId", evento.contatoId());
+        dados.put("ocorridoEm", evento.ocorridoEm().toString());
+        dados.put("alteracoes", evento.alteracoes());
+        try {
+            return objectMapper.writeValueAsString(dados);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar alterações do contato " + evento.contatoId(), e);
+        }
+    }
+
+    private record Mensagem(long id, String tenantId, String json) {
+    }
+
+    private static final class Assinante {
+        final SseEmitter emitter;
+        final String tenantId;
+        final BlockingQueue<Mensagem> fila;
+        final AtomicBoolean agendado = new AtomicBoolean();
+        // Início do envio em andamento (System.nanoTime), 0 sem envio
+        volatile long envioDesde;
+        // O pool ganhou uma thread no lugar da que está presa no envio deste assinante (sob o lock do assinante)
+        boolean preso;
+        volatile boolean removido;
+
+        Assinante(SseEmitter emitter, String tenantId, BlockingQueue<Mensagem> fila) {
+            this.emitter = emitter;
+            this.tenantId = tenantId;
+            this.fila = fila;
+        }
+    }
+}
@@ -0,0 +1,369 @@
+package com.desafio.agenda_telefonica.service;
+
+import com.desafio.agenda_telefonica.deduplicacao.Candidato;
+import com.desafio.agenda_telefonica.deduplicacao.ComparacaoTask;
+import com.desafio.agenda_telefonica.deduplicacao.ContatoResumo;
+import com.desafio.agenda_telefonica.deduplicacao.NumeroContato;
+import com.desafio.agenda_telefonica.deduplicacao.ParDuplicado;
+import com.desafio.agenda_telefonica.dto.MesclagemDTO;
+import com.desafio.agenda_telefonica.evento.ContatoAlteradoEvent;
+import com.desafio.agenda_telefonica.evento.ContatoSnapshot;
+import com.desafio.agenda_telefonica.exception.ContatoNaoEncontradoException;
+import com.desafio.agenda_telefonica.model.Contato;
+import com.desafio.agenda_telefonica.model.ContatoDuplicidade;
+import com.desafio.agenda_telefonica.model.ContatoTelefone;
+import com.desafio.agenda_telefonica.model.Tag;
+import com.desafio.agenda_telefonica.model.TipoAlteracao;
+import com.desafio.agenda_telefonica.repository.ContatoDuplicidadeRepository;
+import com.desafio.agenda_telefonica.repository.ContatoRepository;
+import com.desafio.agenda_telefonica.repository.ContatoTelefoneRepository;
+import com.desafio.agenda_telefonica.tenant.TenantContext;
+import com.desafio.agenda_telefonica.util.NomeUtils;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+
+// Detecção de contatos duplicados e mesclagem.
+//
+// A detecção lê a tabela em páginas por ID, guardando só um resumo normalizado de cada contato (sem entidades),
+// agrupa em blocos os contatos que dividem um número, um e-mail ou a chave fonética do nome, e compara
+// os pares de cada bloco em paralelo (ComparacaoTask no ForkJoinPool). Os pares acima do limite vão para
+// contato_duplicidade, para revisão; a mesclagem de um lote de grupos roda numa única transação.
+@Service
+@Profile("!edge")
+public class DeduplicacaoService {
+
+    private static final Logger log = LoggerFactory.getLogger(DeduplicacaoService.class);
+
+    private static final int LOTE_GRAVACAO = 500;
+
+    @Autowired
+    private ContatoRepository contatoRepository;
+
+    @Autowired
+    private ContatoTelefoneRepository telefoneRepository;
+
+    @Autowired
+    private ContatoDuplicidadeRepository duplicidadeRepository;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private ApplicationEventPublisher eventos;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${agenda.deduplicacao.lote:2000}")
+    private int tamanhoLote;
+
+    // Pontuação mínima (0 a 1) para um par ir para revisão
+    @Value("${agenda.deduplicacao.limite:0.55}")
+    private double limite;
+
+    // Blocos maiores que isso (ex.: PABX compartilhado por centenas de contatos, "JOSE SILVA") são ignorados:
+    // comparar todos com todos seria quadrático e quase nada ali é duplicado de verdade
+    @Value("${agenda.deduplicacao.bloco-maximo:200}")
+    private int blocoMaximo;
+
+    // 0 = um thread por CPU
+    @Value("${agenda.deduplicacao.paralelismo:0}")
+    private int paralelismo;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "deduplicacao");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Tenants com detecção pendente ou rodando: uma por tenant, sem bloquear os demais.
+    // O executor tem um thread só (a comparação já é paralela), então a de outro tenant espera na fila.
+    private final Set<String> emAndamento = ConcurrentHashMap.newKeySet();
+
+    // =============================
+    // DETECÇÃO
+    // =============================
+
+    // Dispara a detecção em segundo plano para o tenant atual; false se o tenant já tiver uma em andamento
+    public boolean iniciarDeteccao() {
+        String tenant = TenantContext.getTenantId();
+        if (!emAndamento.add(tenant)) {
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                TenantContext.setTenantId(tenant);
+                try {
+                    detectar();
+                } catch (RuntimeException e) {
+                    log.error("Falha na detecção de duplicados do tenant {}", tenant, e);
+                } finally {
+                    TenantContext.limpar();
+                    emAndamento.remove(tenant);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            emAndamento.remove(tenant);
+            throw e;
+        }
+        return true;
+    }
+
+    // Roda a detecção no thread atual e substitui os pares da execução anterior do tenant
+    public List<ParDuplicado> detectar() {
+        long inicio = System.nanoTime();
+        List<Candidato> candidatos = carregarCandidatos();
+        List<int[]> blocos = montarBlocos(candidatos);
+
+        ForkJoinPool pool = paralelismo > 0 ? new ForkJoinPool(paralelismo) : new ForkJoinPool();
+        List<ParDuplicado> pares;
+        try {
+            pares = distintos(pool.invoke(new ComparacaoTask(candidatos, blocos, limite)));
+        } finally {
+            pool.shutdown();
+        }
+
+        gravar(pares);
+        log.info("Detecção de duplicados: {} contatos, {} blocos, {} pares em {} ms", candidatos.size(), blocos.size(),
+                pares.size(), Duration.ofNanos(System.nanoTime() - inicio).toMillis());
+        return pares;
+    }
+
+    public Page<ContatoDuplicidade> listar(Pageable pageable) {
+        return duplicidadeRepository.findAll(pageable);
+    }
+
+    // Resumos em páginas por faixa de ID: contatos e seus números numa consulta cada
+    private List<Candidato> carregarCandidatos() {
+        List<Candidato> candidatos = new ArrayList<>();
+        long ultimoId = 0;
+        List<ContatoResumo> pagina;
+        do {
+            pagina = contatoRepository.findResumos(ultimoId, Limit.of(tamanhoLote));
+            if (pagina.isEmpty()) {
+                break;
+            }
+            long ate = pagina.get(pagina.size() - 1).id();
+
+            Map<Long, List<String>> numeros = new HashMap<>();
+            for (NumeroContato numero : telefoneRepository.findNumerosPorFaixa(ultimoId, ate)) {
+                numeros.computeIfAbsent(numero.contatoId(), id -> new ArrayList<>(2)).add(numero.numero());
+            }
+            for (ContatoResumo resumo : pagina) {
+                candidatos.add(new Candidato(resumo.id(), NomeUtils.normalizar(resumo.nome()),
+                        normalizarEmail(resumo.email()),
+                        numeros.getOrDefault(resumo.id(), List.of()).toArray(String[]::new)));
+            }
+            ultimoId = ate;
+        } while (pagina.size() == tamanhoLote);
+        return candidatos;
+    }
+
+    // Posições (na lista de candidatos) de cada bloco com 2 ou mais contatos
+    private List<int[]> montarBlocos(List<Candidato> candidatos) {
+        Map<String, Bloco> porChave = new HashMap<>();
+        for (int i = 0; i < candidatos.size(); i++) {
+            Candidato candidato = candidatos.get(i);
+            for (String numero : candidato.numeros()) {
+                porChave.computeIfAbsent("t:" + numero, k -> new Bloco()).adicionar(i);
+            }
+            if (candidato.email() != null) {
+                porChave.computeIfAbsent("e:" + candidato.email(), k -> new Bloco()).adicionar(i);
+            }
+            String chave = NomeUtils.chaveFonetica(candidato.nome());
+            if (chave != null) {
+                porChave.computeIfAbsent("n:" + chave, k -> new Bloco()).adicionar(i);
+            }
+        }
+
+        List<int[]> blocos = new ArrayList<>();
+        int ignorados = 0;
+        for (Map.Entry<String, Bloco> entrada : porChave.entrySet()) {
+            Bloco bloco = entrada.getValue();
+            if (bloco.tamanho > blocoMaximo) {
+                ignorados++;
+                log.debug("Bloco {} ignorado na deduplicação: {} contatos", entrada.getKey(), bloco.tamanho);
+            } else if (bloco.tamanho > 1) {
+                blocos.add(Arrays.copyOf(bloco.posicoes, bloco.tamanho));
+            }
+        }
+        if (ignorados > 0) {
+            log.info("Deduplicação: {} blocos com mais de {} contatos ignorados", ignorados, blocoMaximo);
+        }
+        return blocos;
+    }
+
+    // O mesmo par pode aparecer em mais de um bloco (mesmo telefone e mesmo nome); ordena do mais provável
+    private static List<ParDuplicado> distintos(List<ParDuplicado> pares) {
+        Map<List<Long>, ParDuplicado> unicos = new HashMap<>();
+        for (ParDuplicado par : pares) {
+            unicos.putIfAbsent(List.of(par.contatoId(), par.duplicadoId()), par);
+        }
+        List<ParDuplicado> resultado = new ArrayList<>(unicos.values());
+        resultado.sort(Comparator.comparingDouble(ParDuplicado::pontuacao).reversed()
+                .thenComparingLong(ParDuplicado::contatoId)
+                .thenComparingLong(ParDuplicado::duplicadoId));
+        return resultado;
+    }
+
+    private void gravar(List<ParDuplicado> pares) {
+        String tenant = TenantContext.getTenantId();
+        Instant agora = Instant.now();
+        transactionTemplate.executeWithoutResult(status -> duplicidadeRepository.apagarDoTenant(tenant));
+        for (int i = 0; i < pares.size(); i += LOTE_GRAVACAO) {
+            List<ContatoDuplicidade> lote = pares.subList(i, Math.min(i + LOTE_GRAVACAO, pares.size())).stream()
+                    .map(p -> new ContatoDuplicidade(p.contatoId(), p.duplicadoId(), p.pontuacao(), p.motivos(), agora))
+                    .toList();
+            transactionTemplate.executeWithoutResult(status -> duplicidadeRepository.saveAll(lote));
+        }
+    }
+
+    private static String normalizarEmail(String email) {
+        return email == null || email.isBlank() ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+    }
+
+    // =============================
+    // MESCLAGEM
+    // =============================
+
+    // Todos os grupos numa transação: se um falhar (ex.: contato não encontrado), nada é mesclado
+    @Transactional
+    public List<Contato> mesclar(List<MesclagemDTO> grupos) {
+        Set<Long> envolvidos = new HashSet<>();
+        for (MesclagemDTO grupo : grupos) {
+            if (grupo.principal() == null || grupo.duplicados() == null || grupo.duplicados().isEmpty()) {
+                throw new IllegalArgumentException("Informe o contato principal e ao menos um duplicado");
+            }
+            for (Long id : concat(grupo.principal(), grupo.duplicados())) {
+                if (id == null || !envolvidos.add(id)) {
+                    throw new IllegalArgumentException("Contato " + id + " aparece mais de uma vez na mesclagem");
+                }
+            }
+        }
+
+        List<Contato> mesclados = new ArrayList<>(grupos.size());
+        for (MesclagemDTO grupo : grupos) {
+            mesclados.add(mesclar(grupo.principal(), grupo.duplicados()));
+        }
+        duplicidadeRepository.apagarEnvolvendo(envolvidos);
+        return mesclados;
+    }
+
+    // O principal mantém nome e celular; herda e-mail e telefone se não tiver, os números e as tags dos duplicados
+    private Contato mesclar(Long principalId, List<Long> duplicadosIds) {
+        Contato principal = buscar(principalId);
+        ContatoSnapshot antes = ContatoSnapshot.de(principal);
+        Set<Tag> tagsAnteriores = principal.getTags() == null ? new HashSet<>() : new HashSet<>(principal.getTags());
+        Set<Tag> tags = new HashSet<>(tagsAnteriores);
+        List<ContatoTelefone> herdados = new ArrayList<>();
+
+        for (Long id : duplicadosIds) {
+            Contato duplicado = buscar(id);
+            if (principal.getEmail() == null || principal.getEmail().isBlank()) {
+                principal.setEmail(duplicado.getEmail());
+            }
+            if (principal.getTelefone() == null || principal.getTelefone().isBlank()) {
+                principal.setTelefone(duplicado.getTelefone());
+            }
+            principal.setFavorito(principal.isFavorito() || duplicado.isFavorito());
+            if (duplicado.isAtivo() && !principal.isAtivo()) {
+                principal.setAtivo(true);
+                principal.setInativadoEm(null);
+            }
+            if (duplicado.getTelefones() != null) {
+                for (ContatoTelefone telefone : duplicado.getTelefones()) {
+                    herdados.add(new ContatoTelefone(telefone.getTipo(), telefone.getNumero()));
+                }
+            }
+            if (duplicado.getTags() != null) {
+                tags.addAll(duplicado.getTags());
+                tagService.atualizarContadores(duplicado.getTags(), Set.of());
+            }
+
+            ContatoSnapshot snapshotDuplicado = ContatoSnapshot.de(duplicado);
+            contatoRepository.delete(duplicado);
+            publicar(TipoAlteracao.REMOVIDO, id, snapshotDuplicado, null);
+        }
+
+        // Os duplicados (e seus telefones) saem do banco antes de os números passarem ao principal:
+        // no flush o Hibernate faz os INSERTs antes dos DELETEs, e o mesmo celular nos dois violaria a unique
+        contatoRepository.flush();
+
+        if (principal.getTelefones() == null) {
+            principal.setTelefones(new ArrayList<>());
+        }
+        Set<String> numeros = new HashSet<>();
+        principal.getTelefones().forEach(t -> numeros.add(t.getNumeroNormalizado()));
+        for (ContatoTelefone telefone : herdados) {
+            if (numeros.add(telefone.getNumeroNormalizado())) {
+                telefone.setContato(principal);
+                principal.getTelefones().add(telefone);
+            }
+        }
+
+        principal.setTags(tags);
+        tagService.atualizarContadores(tagsAnteriores, tags);
+
+        Contato salvo = contatoRepository.save(principal);
+        publicar(TipoAlteracao.MESCLADO, principalId, antes, ContatoSnapshot.de(salvo));
+        return salvo;
+    }
+
+    private Contato buscar(Long id) {
+        return contatoRepository.findById(id).orElseThrow(() -> new ContatoNaoEncontradoException(id));
+    }
+
+    private void publicar(TipoAlteracao tipo, Long id, ContatoSnapshot antes, ContatoSnapshot depois) {
+        eventos.publishEvent(new ContatoAlteradoEvent(tipo, id, TenantContext.getTenantId(), Instant.now(),
+                ContatoSnapshot.diferencas(antes, depois)));
+    }
+
+    private static List<Long> concat(Long principal, List<Long> duplicados) {
+        List<Long> ids = new ArrayList<>(duplicados.size() + 1);
+        ids.add(principal);
+        ids.addAll(duplicados);
+        return ids;
+    }
+
+    // Lista de posições que cresce sem boxing (a detecção pode montar milhões de entradas)
+    private static final class Bloco {
+        int[] posicoes = new int[2];
+        int tamanho;
+
+        void adicionar(int posicao) {
+            // O mesmo contato não entra duas vezes no bloco (ex.: telefone repetido em dois tipos)
+            if (tamanho > 0 && posicoes[tamanho - 1] == posicao) {
+                return;
+            }
+            if (tamanho == posicoes.length) {
+                posicoes = Arrays.copyOf(posicoes, tamanho * 2);
+            }
+            posicoes[tamanho++] = posicao;
+        }
+    }
+}
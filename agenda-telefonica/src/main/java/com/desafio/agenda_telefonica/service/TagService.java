@@ -0,0 +1,71 @@
+package com.desafio.agenda_telefonica.service;
+
+import com.desafio.agenda_telefonica.model.Tag;
+import com.desafio.agenda_telefonica.repository.TagRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+// Tags dependem do banco: fora do profile edge (armazenamento embarcado)
+@Service
+@Profile("!edge")
+public class TagService {
+
+    @Autowired
+    private TagRepository repository;
+
+    // Converte as tags recebidas (só nome) nas entidades gerenciadas, criando as que ainda não existem.
+    // Duas requisições criando a mesma tag nova ao mesmo tempo: a segunda cai em uk_tag_tenant_nome
+    // e recebe 409 para repetir (a transação já está perdida no PostgreSQL, então não dá para reler aqui)
+    public Set<Tag> resolver(Set<Tag> informadas) {
+        if (informadas == null || informadas.isEmpty()) {
+            return new HashSet<>();
+        }
+
+        Set<String> nomes = informadas.stream()
+                .map(Tag::getNome)
+                .filter(nome -> nome != null && !nome.isBlank())
+                .collect(Collectors.toSet());
+        if (nomes.isEmpty()) {
+            return new HashSet<>();
+        }
+
+        Set<Tag> resolvidas = new HashSet<>(repository.findByNomeIn(nomes));
+        for (String nome : nomes) {
+            Tag tag = new Tag(nome);
+            if (!resolvidas.contains(tag)) {
+                resolvidas.add(repository.save(tag));
+            }
+        }
+        return resolvidas;
+    }
+
+    // Mantém os contadores da tabela tag: +1 nas tags adicionadas, -1 nas removidas
+    public void atualizarContadores(Set<Tag> anteriores, Set<Tag> atuais) {
+        Set<Tag> antes = anteriores == null ? Set.of() : anteriores;
+        Set<Tag> depois = atuais == null ? Set.of() : atuais;
+
+        somar(depois.stream().filter(tag -> !antes.contains(tag)).toList(), 1);
+        somar(antes.stream().filter(tag -> !depois.contains(tag)).toList(), -1);
+    }
+
+    // Total de contatos com a tag (lido do contador, sem count(*))
+    public long totalPorTag(String nome) {
+        return repository.findByNome(Tag.normalizar(nome))
+                .map(Tag::getTotalContatos)
+                .orElse(0L);
+    }
+
+    private void somar(Collection<Tag> tags, long delta) {
+        if (tags.isEmpty()) {
+            return;
+        }
+        List<Long> ids = tags.stream().map(Tag::getId).filter(Objects::nonNull).toList();
+        if (!ids.isEmpty()) {
+            repository.somarAoContador(ids, delta);
+        }
+    }
+}
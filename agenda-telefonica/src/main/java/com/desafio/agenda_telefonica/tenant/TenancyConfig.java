@@ -0,0 +1,47 @@
+package com.desafio.agenda_telefonica.tenant;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import javax.sql.DataSource;
+
+// Multi-tenant por discriminador: as entidades com @TenantId recebem o tenant_id na gravação
+// e o Hibernate acrescenta "tenant_id = ?" em toda consulta, inclusive as derivadas do ContatoRepository.
+@Configuration
+@Profile("!edge")
+@EnableConfigurationProperties(TenancyProperties.class)
+public class TenancyConfig {
+
+    @Bean
+    public CurrentTenantIdentifierResolver<String> tenantIdentifierResolver() {
+        return new CurrentTenantIdentifierResolver<>() {
+            @Override
+            public String resolveCurrentTenantIdentifier() {
+                return TenantContext.getTenantId();
+            }
+
+            @Override
+            public boolean validateExistingCurrentSessions() {
+                return false;
+            }
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer tenancyHibernateCustomizer(CurrentTenantIdentifierResolver<String> resolver,
+                                                                    DataSource dataSource,
+                                                                    TenancyProperties properties) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, resolver);
+            if (!properties.getSchemas().isEmpty()) {
+                hibernateProperties.put(AvailableSettings.MULTI_TENANT_CONNECTION_PROVIDER,
+                        new TenantSchemaConnectionProvider(dataSource, properties.getSchemas()));
+            }
+        };
+    }
+}
@@ -0,0 +1,22 @@
+package com.desafio.agenda_telefonica.tenant;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// agenda.tenancy.schemas.<tenant>=<schema>: tenants grandes com schema próprio.
+// Os demais ficam no schema padrão, separados pela coluna tenant_id.
+@ConfigurationProperties(prefix = "agenda.tenancy")
+public class TenancyProperties {
+
+    private Map<String, String> schemas = new HashMap<>();
+
+    public Map<String, String> getSchemas() {
+        return schemas;
+    }
+
+    public void setSchemas(Map<String, String> schemas) {
+        this.schemas = schemas;
+    }
+}
@@ -0,0 +1,26 @@
+package com.desafio.agenda_telefonica.tenant;
+
+// Tenant (agenda de cliente) da thread atual.
+// Preenchido pelo TenantFilter em cada requisição; fora de requisição vale o tenant padrão.
+public final class TenantContext {
+
+    public static final String PADRAO = "default";
+
+    private static final ThreadLocal<String> ATUAL = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static String getTenantId() {
+        String tenantId = ATUAL.get();
+        return tenantId == null ? PADRAO : tenantId;
+    }
+
+    public static void setTenantId(String tenantId) {
+        ATUAL.set(tenantId);
+    }
+
+    public static void limpar() {
+        ATUAL.remove();
+    }
+}
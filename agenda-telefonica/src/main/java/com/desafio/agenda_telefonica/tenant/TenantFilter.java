@@ -0,0 +1,46 @@
+package com.desafio.agenda_telefonica.tenant;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+// Resolve o tenant da requisição pelo header X-Tenant-ID (sem header = tenant padrão)
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TenantFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Tenant-ID";
+
+    private static final Pattern FORMATO = Pattern.compile("[A-Za-z0-9_-]{1,40}");
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String tenantId = request.getHeader(HEADER);
+
+        if (tenantId != null && !FORMATO.matcher(tenantId).matches()) {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding("UTF-8");
+            response.getWriter().write("{\"status\":\"error\",\"mensagem\":\"Tenant inválido\",\"data\":null}");
+            return;
+        }
+
+        TenantContext.setTenantId(tenantId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            TenantContext.limpar();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.desafio.agenda_telefonica.tenant;
+
+import org.hibernate.engine.jdbc.connections.spi.MultiTenantConnectionProvider;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+// Entrega ao Hibernate conexões já apontando para o schema próprio do tenant, quando houver.
+// O pool (HikariCP) restaura o schema original quando a conexão é devolvida.
+public class TenantSchemaConnectionProvider implements MultiTenantConnectionProvider<String> {
+
+    private final DataSource dataSource;
+    private final Map<String, String> schemas;
+
+    public TenantSchemaConnectionProvider(DataSource dataSource, Map<String, String> schemas) {
+        this.dataSource = dataSource;
+        this.schemas = Map.copyOf(schemas);
+    }
+
+    @Override
+    public Connection getAnyConnection() throws SQLException {
+        return dataSource.getConnection();
+    }
+
+    @Override
+    public void releaseAnyConnection(Connection connection) throws SQLException {
+        connection.close();
+    }
+
+    @Override
+    public Connection getConnection(String tenantId) throws SQLException {
+        Connection connection = getAnyConnection();
+        String schema = schemas.get(tenantId);
+        if (schema != null) {
+            try {
+                connection.setSchema(schema);
+            } catch (SQLException e) {
+                connection.close();
+                throw e;
+            }
+        }
+        return connection;
+    }
+
+    @Override
+    public void releaseConnection(String tenantId, Connection connection) throws SQLException {
+        connection.close();
+    }
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return false;
+    }
+
+    @Override
+    public boolean isUnwrappableAs(Class<?> unwrapType) {
+        return unwrapType.isInstance(this);
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> unwrapType) {
+        if (isUnwrappableAs(unwrapType)) {
+            return unwrapType.cast(this);
+        }
+        throw new IllegalArgumentException("Não é possível converter para " + unwrapType);
+    }
+}
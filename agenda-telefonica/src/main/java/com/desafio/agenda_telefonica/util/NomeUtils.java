@@ -0,0 +1,129 @@
+package com.desafio.agenda_telefonica.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.Set;
+
+public final class NomeUtils {
+
+    // Partículas que não ajudam a diferenciar nomes ("Maria da Silva" x "Maria Silva")
+    private static final Set<String> PARTICULAS = Set.of("DA", "DAS", "DE", "DO", "DOS", "E");
+
+    private NomeUtils() {
+    }
+
+    // Maiúsculas, sem acentos nem pontuação e com espaços simples: "  José d'Ávila" -> "JOSE D AVILA"
+    public static String normalizar(String nome) {
+        if (nome == null) {
+            return "";
+        }
+        String semAcentos = Normalizer.normalize(nome, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return semAcentos.toUpperCase(Locale.ROOT).replaceAll("[^A-Z ]", " ").trim().replaceAll(" +", " ");
+    }
+
+    // Chave fonética do primeiro e do último nome (sem partículas), para agrupar grafias diferentes do mesmo som:
+    // "Allysson Tavares" e "Alisson Tavarez" dão a mesma chave. Retorna null para nome vazio.
+    public static String chaveFonetica(String nome) {
+        String[] partes = normalizar(nome).split(" ");
+        String primeiro = null;
+        String ultimo = null;
+        for (String parte : partes) {
+            if (parte.isEmpty() || PARTICULAS.contains(parte)) {
+                continue;
+            }
+            if (primeiro == null) {
+                primeiro = fonetico(parte);
+            } else {
+                ultimo = fonetico(parte);
+            }
+        }
+        if (primeiro == null) {
+            return null;
+        }
+        return ultimo == null ? primeiro : primeiro + " " + ultimo;
+    }
+
+    // Regras simplificadas para o português: dígrafos, C/G antes de E/I, letras de mesmo som e letras repetidas
+    static String fonetico(String palavra) {
+        String p = palavra
+                .replace("PH", "F")
+                .replace("CH", "X")
+                .replace("SH", "X")
+                .replace("LH", "L")
+                .replace("NH", "N")
+                .replace("QU", "K")
+                .replace("GUE", "GE")
+                .replace("GUI", "GI")
+                .replaceAll("C([EI])", "S$1")
+                .replaceAll("G([EI])", "J$1")
+                .replace('C', 'K')
+                .replace('Q', 'K')
+                .replace('Y', 'I')
+                .replace('W', 'V')
+                .replace('Z', 'S')
+                .replace("H", "");
+
+        StringBuilder chave = new StringBuilder(p.length());
+        for (int i = 0; i < p.length(); i++) {
+            char c = p.charAt(i);
+            if (chave.isEmpty() || chave.charAt(chave.length() - 1) != c) {
+                chave.append(c);
+            }
+        }
+        return chave.toString();
+    }
+
+    // Similaridade Jaro-Winkler (0 a 1) entre dois nomes já normalizados
+    public static double similaridade(String a, String b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0;
+        }
+        if (a.equals(b)) {
+            return 1;
+        }
+
+        int janela = Math.max(0, Math.max(a.length(), b.length()) / 2 - 1);
+        boolean[] usadosA = new boolean[a.length()];
+        boolean[] usadosB = new boolean[b.length()];
+
+        int coincidencias = 0;
+        for (int i = 0; i < a.length(); i++) {
+            int inicio = Math.max(0, i - janela);
+            int fim = Math.min(b.length() - 1, i + janela);
+            for (int j = inicio; j <= fim; j++) {
+                if (!usadosB[j] && a.charAt(i) == b.charAt(j)) {
+                    usadosA[i] = true;
+                    usadosB[j] = true;
+                    coincidencias++;
+                    break;
+                }
+            }
+        }
+        if (coincidencias == 0) {
+            return 0;
+        }
+
+        int transposicoes = 0;
+        int k = 0;
+        for (int i = 0; i < a.length(); i++) {
+            if (usadosA[i]) {
+                while (!usadosB[k]) {
+                    k++;
+                }
+                if (a.charAt(i) != b.charAt(k)) {
+                    transposicoes++;
+                }
+                k++;
+            }
+        }
+
+        double m = coincidencias;
+        double jaro = (m / a.length() + m / b.length() + (m - transposicoes / 2.0) / m) / 3;
+
+        int prefixo = 0;
+        while (prefixo < Math.min(4, Math.min(a.length(), b.length())) && a.charAt(prefixo) == b.charAt(prefixo)) {
+            prefixo++;
+        }
+        return jaro + prefixo * 0.1 * (1 - jaro);
+    }
+}
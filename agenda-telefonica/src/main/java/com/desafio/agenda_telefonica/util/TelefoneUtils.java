@@ -0,0 +1,26 @@
+package com.desafio.agenda_telefonica.util;
+
+public final class TelefoneUtils {
+
+    private TelefoneUtils() {
+    }
+
+    // Deixa só os dígitos e remove o DDI 55, para "(81) 99999-9999" e "+55 81 999999999" caírem na mesma chave.
+    // Retorna null quando não sobra nenhum dígito.
+    public static String normalizar(String numero) {
+        if (numero == null) {
+            return null;
+        }
+        StringBuilder digitos = new StringBuilder(numero.length());
+        for (int i = 0; i < numero.length(); i++) {
+            char c = numero.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digitos.append(c);
+            }
+        }
+        if (digitos.length() > 11 && digitos.charAt(0) == '5' && digitos.charAt(1) == '5') {
+            digitos.delete(0, 2);
+        }
+        return digitos.isEmpty() ? null : digitos.toString();
+    }
+}
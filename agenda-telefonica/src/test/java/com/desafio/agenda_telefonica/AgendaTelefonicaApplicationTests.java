@@ -2,8 +2,11 @@ package com.desafio.agenda_telefonica;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 
-@SpringBootTest
+// Sobe o contexto completo no profile dev, com H2 em memória (sem PostgreSQL)
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:contexto;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH")
+@ActiveProfiles("dev")
 class AgendaTelefonicaApplicationTests {
 
 	@Test
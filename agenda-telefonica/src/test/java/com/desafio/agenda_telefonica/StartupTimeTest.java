@@ -0,0 +1,153 @@
+package com.desafio.agenda_telefonica;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+// Mede a subida do artefato de subida rápida: o jar extraído com AOT, rodando com o arquivo CDS,
+// em um processo java separado, até o primeiro GET /api/contatos/total com sucesso (H2 em arquivo no lugar do PostgreSQL),
+// com as configurações do próprio profile (sem DDL nem leitura de metadados do banco na subida).
+// Fora do build normal: roda na fase integration-test do profile, depois do package que gera jar e CDS:
+//   mvn -Pfast-start verify
+// O resultado vai para target/startup-time.txt para acompanhar regressões; o limite pode ser ajustado
+// com -Dagenda.startup.limite-ms.
+@Tag("startup")
+class StartupTimeTest {
+
+    private static final long LIMITE_MS = Long.getLong("agenda.startup.limite-ms", 30_000);
+
+    @Test
+    void deveResponderPrimeiraRequisicaoDentroDoLimite() throws Exception {
+        Path jar = Path.of(System.getProperty("agenda.startup.jar", "target/extracted/agenda-telefonica-0.0.1-SNAPSHOT.jar"));
+        Path cds = Path.of(System.getProperty("agenda.startup.cds", "target/extracted/application.jsa"));
+        assertTrue(Files.exists(jar) && Files.exists(cds),
+                "Jar extraído e arquivo CDS não encontrados em " + jar.getParent() + ": rode mvn -Pfast-start verify");
+
+        // O fast-start sobe sem DDL nem introspecção (ddl-auto=none): o schema já existe, como em produção.
+        // Ele é criado antes, fora da medição, por uma subida do mesmo jar no profile prod que encerra após o refresh.
+        Path banco = Path.of("target", "startup-db");
+        apagar(banco);
+        String url = "--spring.datasource.url=jdbc:h2:file:" + banco.toAbsolutePath().resolve("agenda")
+                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE";
+        criarSchema(jar, url);
+
+        int porta = portaLivre();
+        List<String> comando = new ArrayList<>(List.of(
+                java(),
+                "-XX:SharedArchiveFile=" + cds,
+                "-Dspring.aot.enabled=true",
+                "-jar", jar.toString(),
+                "--spring.profiles.active=prod,fast-start",
+                "--server.port=" + porta));
+        comando.addAll(h2(url));
+        ProcessBuilder builder = new ProcessBuilder(comando)
+                .redirectErrorStream(true)
+                .redirectOutput(Path.of("target", "startup-app.log").toFile());
+
+        long inicio = System.nanoTime();
+        Process processo = builder.start();
+        try {
+            long decorrido = esperarPrimeiraResposta(processo, porta, inicio);
+            Files.writeString(Path.of("target", "startup-time.txt"), decorrido + "\n");
+
+            assertTrue(decorrido <= LIMITE_MS, "Subida levou " + decorrido + " ms (limite " + LIMITE_MS + " ms)");
+        } finally {
+            processo.destroy();
+            if (!processo.waitFor(10, TimeUnit.SECONDS)) {
+                processo.destroyForcibly();
+            }
+        }
+    }
+
+    // Tenta o GET até responder 200; desiste se o processo morrer ou passar do dobro do limite
+    private static long esperarPrimeiraResposta(Process processo, int porta, long inicio) throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/api/contatos/total"))
+                .timeout(Duration.ofSeconds(10))
+                .build();
+        long prazo = inicio + Duration.ofMillis(LIMITE_MS * 2).toNanos();
+
+        while (System.nanoTime() < prazo) {
+            if (!processo.isAlive()) {
+                fail("Aplicação encerrou com código " + processo.exitValue() + " (ver target/startup-app.log)");
+            }
+            try {
+                int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                assertTrue(status == 200, "GET /api/contatos/total retornou " + status);
+                return Duration.ofNanos(System.nanoTime() - inicio).toMillis();
+            } catch (ConnectException e) {
+                Thread.sleep(20);
+            }
+        }
+        return fail("Sem resposta em " + LIMITE_MS * 2 + " ms (ver target/startup-app.log)");
+    }
+
+    private static void criarSchema(Path jar, String url) throws Exception {
+        List<String> comando = new ArrayList<>(List.of(
+                java(),
+                "-Dspring.context.exit=onRefresh",
+                "-jar", jar.toString(),
+                "--spring.profiles.active=prod",
+                "--server.port=0",
+                "--spring.jpa.hibernate.ddl-auto=create"));
+        comando.addAll(h2(url));
+        Process processo = new ProcessBuilder(comando)
+                .redirectErrorStream(true)
+                .redirectOutput(Path.of("target", "startup-schema.log").toFile())
+                .start();
+        if (!processo.waitFor(LIMITE_MS * 2, TimeUnit.MILLISECONDS)) {
+            processo.destroyForcibly();
+            fail("Criação do schema não terminou (ver target/startup-schema.log)");
+        }
+        assertEquals(0, processo.exitValue(), "Criação do schema falhou (ver target/startup-schema.log)");
+    }
+
+    // H2 em arquivo no lugar do PostgreSQL do profile prod
+    private static List<String> h2(String url) {
+        return List.of(
+                url,
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect");
+    }
+
+    private static String java() {
+        return Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    }
+
+    private static void apagar(Path diretorio) throws IOException {
+        if (Files.exists(diretorio)) {
+            try (Stream<Path> arquivos = Files.walk(diretorio)) {
+                for (Path arquivo : arquivos.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(arquivo);
+                }
+            }
+        }
+    }
+
+    private static int portaLivre() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
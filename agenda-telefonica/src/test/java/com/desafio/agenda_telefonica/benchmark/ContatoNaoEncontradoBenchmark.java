@@ -0,0 +1,57 @@
+package com.desafio.agenda_telefonica.benchmark;
+
+import com.desafio.agenda_telefonica.exception.ContatoNaoEncontradoException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Custo de um "miss" em GET /api/contatos/{id}: IllegalArgumentException com stack trace e
+// mensagem concatenada (comportamento anterior) x ContatoNaoEncontradoException sem stack trace.
+// A profundidade simula a pilha real de uma requisição (Tomcat + filtros + Spring MVC).
+//
+// Execução: java -cp target/test-classes:<classpath de teste> org.openjdk.jmh.Main ContatoNaoEncontradoBenchmark
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContatoNaoEncontradoBenchmark {
+
+    @Param({"20", "120"})
+    public int profundidade;
+
+    private long id = 123456L;
+
+    @Benchmark
+    public String missComStackTrace() {
+        return naPilha(profundidade, () -> {
+            try {
+                return Optional.<String>empty()
+                        .orElseThrow(() -> new IllegalArgumentException("Contato não encontrado com ID: " + id));
+            } catch (IllegalArgumentException e) {
+                return e.getMessage();
+            }
+        });
+    }
+
+    @Benchmark
+    public Object missSemStackTrace() {
+        return naPilha(profundidade, () -> {
+            try {
+                return Optional.<String>empty().orElseThrow(() -> new ContatoNaoEncontradoException(id));
+            } catch (ContatoNaoEncontradoException e) {
+                // O handler só lê a mensagem quando monta a resposta 404
+                return e.getMessage();
+            }
+        });
+    }
+
+    private static String naPilha(int nivel, java.util.function.Supplier<String> call) {
+        if (nivel == 0) {
+            return call.get();
+        }
+        return naPilha(nivel - 1, call);
+    }
+}
@@ -0,0 +1,88 @@
+package com.desafio.agenda_telefonica.benchmark;
+
+import com.desafio.agenda_telefonica.AgendaTelefonicaApplication;
+import com.desafio.agenda_telefonica.model.Contato;
+import com.desafio.agenda_telefonica.model.ContatoTelefone;
+import com.desafio.agenda_telefonica.model.TipoTelefone;
+import com.desafio.agenda_telefonica.service.ContatoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Latência de GET /api/contatos (listar + serializar) com os telefones na tabela filha, antes e depois da carga em lote.
+// Os dois lados rodam o mesmo ContatoService.listar serializado pelo ObjectMapper da aplicação; só muda
+// hibernate.default_batch_fetch_size: lote=1 é o acesso sem lote (uma consulta de telefones e uma de tags
+// por contato, o N+1), lote=50 é a configuração da aplicação.
+// Banco H2 em memória, dentro de uma transação como o open-in-view faz na requisição.
+//
+// Execução: java -cp target/test-classes:<classpath de teste> org.openjdk.jmh.Main ListagemTelefonesBenchmark
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ListagemTelefonesBenchmark {
+
+    @Param({"1000"})
+    public int contatos;
+
+    @Param({"1", "50"})
+    public int lote;
+
+    private ConfigurableApplicationContext context;
+    private ContatoService service;
+    private TransactionTemplate transacao;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        SpringApplication app = new SpringApplication(AgendaTelefonicaApplication.class);
+        app.setWebApplicationType(WebApplicationType.NONE);
+        context = app.run(
+                "--spring.datasource.url=jdbc:h2:mem:bench;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.default_batch_fetch_size=" + lote);
+
+        service = context.getBean(ContatoService.class);
+        transacao = context.getBean(TransactionTemplate.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+
+        for (int i = 0; i < contatos; i++) {
+            Contato contato = new Contato();
+            contato.setNome("Contato " + i);
+            contato.setCelular(String.format("8199%07d", i));
+            contato.setTelefone(String.format("813%07d", i));
+            contato.setTelefones(new ArrayList<>(List.of(new ContatoTelefone(TipoTelefone.COMERCIAL, "8130000000"))));
+            service.salvar(contato);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String listar() {
+        return transacao.execute(status -> {
+            try {
+                return objectMapper.writeValueAsString(service.listar());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,104 @@
+package com.desafio.agenda_telefonica.benchmark;
+
+import com.desafio.agenda_telefonica.dto.ResponseDTO;
+import com.desafio.agenda_telefonica.json.ContatoSerializer;
+import com.desafio.agenda_telefonica.json.ResponseDTOSerializer;
+import com.desafio.agenda_telefonica.model.Contato;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Compara o envelope antigo (POJO mutável + serialização reflexiva do Jackson)
+// com o record + serializers dedicados nos caminhos GET por id e PATCH.
+//
+// Execução: mvn test-compile e depois
+//   java -cp target/test-classes:<classpath de teste> org.openjdk.jmh.Main RespostaSerializacaoBenchmark
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RespostaSerializacaoBenchmark {
+
+    private ObjectMapper mapperReflexivo;
+    private ObjectMapper mapperDedicado;
+    private Contato contato;
+
+    @Setup
+    public void setUp() {
+        mapperReflexivo = new ObjectMapper();
+
+        SimpleModule module = new SimpleModule();
+        module.addSerializer(new ContatoSerializer());
+        module.addSerializer(new ResponseDTOSerializer());
+        mapperDedicado = new ObjectMapper().registerModule(module);
+
+        contato = new Contato();
+        contato.setId(42L);
+        contato.setNome("Allysson");
+        contato.setCelular("81999999999");
+        contato.setTelefone("8133333333");
+        contato.setEmail("allysson@email.com");
+        contato.setAtivo(true);
+        contato.setFavorito(true);
+    }
+
+    // =============================
+    // GET /api/contatos/{id}
+    // =============================
+
+    @Benchmark
+    public String buscarPorIdLegado() throws Exception {
+        return mapperReflexivo.writeValueAsString(
+                new RespostaLegada<>("success", "Contato encontrado com sucesso!", contato));
+    }
+
+    @Benchmark
+    public String buscarPorIdDedicado() throws Exception {
+        return mapperDedicado.writeValueAsString(ResponseDTO.sucesso(ResponseDTO.MSG_ENCONTRADO, contato));
+    }
+
+    // =============================
+    // PATCH /api/contatos/{id}/inativar
+    // =============================
+
+    @Benchmark
+    public String inativarLegado() throws Exception {
+        return mapperReflexivo.writeValueAsString(
+                new RespostaLegada<Void>("success", "Contato inativado com sucesso!", null));
+    }
+
+    @Benchmark
+    public String inativarDedicado() throws Exception {
+        return mapperDedicado.writeValueAsString(ResponseDTO.INATIVADO);
+    }
+
+    // Cópia do ResponseDTO anterior (POJO com getters/setters)
+    public static class RespostaLegada<T> {
+
+        private String status;
+        private String mensagem;
+        private T data;
+
+        public RespostaLegada(String status, String mensagem, T data) {
+            this.status = status;
+            this.mensagem = mensagem;
+            this.data = data;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public String getMensagem() {
+            return mensagem;
+        }
+
+        public T getData() {
+            return data;
+        }
+    }
+}
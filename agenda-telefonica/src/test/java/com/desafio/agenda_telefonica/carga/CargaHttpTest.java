@@ -0,0 +1,277 @@
+package com.desafio.agenda_telefonica.carga;
+
+import com.desafio.agenda_telefonica.AgendaTelefonicaApplication;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Teste de carga HTTP de ponta a ponta (Tomcat, Jackson, Hibernate, pool), fora do build normal:
+//   mvn -Pcarga verify -Dagenda.carga.taxa=300 -Dagenda.carga.slo.p99-ms=40
+//
+// Sobe a aplicação no profile dev com H2 em memória e a massa do DadosDevSeeder, e dispara um mix de requisições
+// em taxa fixa (carga aberta): cada requisição tem um horário previsto e a latência conta a partir dele,
+// então fila no servidor aparece no p99 em vez de só reduzir a taxa (coordinated omission).
+// Latências em HdrHistogram, por operação; relatório e distribuições (.hgrm) em target/carga.
+// Falha se o p99 ou a vazão ficarem fora do SLO.
+@Tag("carga")
+class CargaHttpTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CargaHttpTest.class);
+
+    private static final String[] REGIOES = {"sudeste", "sul", "centro-oeste", "nordeste", "norte"};
+
+    // Requisições por segundo
+    private static final int TAXA = Integer.getInteger("agenda.carga.taxa", 200);
+    private static final int DURACAO_S = Integer.getInteger("agenda.carga.duracao-s", 60);
+    private static final int AQUECIMENTO_S = Integer.getInteger("agenda.carga.aquecimento-s", 15);
+    private static final int CONTATOS = Integer.getInteger("agenda.carga.contatos", 50_000);
+    private static final int THREADS = Integer.getInteger("agenda.carga.threads", 64);
+    private static final long SEMENTE = Long.getLong("agenda.carga.semente", 42);
+
+    // Percentuais de GET por ID, listagem paginada, favoritar/desfavoritar e POST (soma 100)
+    private static final int[] MIX = Arrays.stream(System.getProperty("agenda.carga.mix", "70,15,10,5").split(","))
+            .mapToInt(p -> Integer.parseInt(p.trim()))
+            .toArray();
+
+    // SLOs: p99 de todas as operações juntas, vazão mínima (padrão: 95% da taxa) e taxa de erros
+    private static final double SLO_P99_MS = Double.parseDouble(System.getProperty("agenda.carga.slo.p99-ms", "50"));
+    private static final double SLO_VAZAO = Double.parseDouble(
+            System.getProperty("agenda.carga.slo.vazao", String.valueOf(TAXA * 0.95)));
+    private static final double SLO_ERROS = Double.parseDouble(System.getProperty("agenda.carga.slo.erros", "0.001"));
+
+    private static final Path SAIDA = Path.of("target", "carga");
+
+    private static ConfigurableApplicationContext context;
+    private static String base;
+    private static long[] ids;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final Map<Operacao, Histogram> latencias = new EnumMap<>(Operacao.class);
+    private final AtomicLong concluidas = new AtomicLong();
+    private final AtomicLong erros = new AtomicLong();
+    private final AtomicLong novosCelulares = new AtomicLong();
+
+    @BeforeAll
+    static void subirAplicacao() {
+        SpringApplication app = new SpringApplication(AgendaTelefonicaApplication.class);
+        context = app.run(
+                "--spring.profiles.active=dev",
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:carga;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+                "--spring.h2.console.enabled=false",
+                "--agenda.seed.quantidade=" + CONTATOS,
+                "--logging.level.root=WARN",
+                // Só o relatório deste teste sai no log
+                "--logging.level.com.desafio.agenda_telefonica.carga=INFO");
+
+        base = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort() + "/api/contatos";
+        ids = context.getBean(JdbcTemplate.class)
+                .queryForList("select id from contato order by id", Long.class).stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+    }
+
+    @AfterAll
+    static void pararAplicacao() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Test
+    void deveAtenderMixDentroDoSlo() throws Exception {
+        assertTrue(MIX.length == Operacao.values().length && Arrays.stream(MIX).sum() == 100,
+                "agenda.carga.mix precisa de " + Operacao.values().length + " percentuais somando 100");
+
+        zerar();
+        executar(Duration.ofSeconds(AQUECIMENTO_S));
+        zerar();
+
+        long inicio = System.nanoTime();
+        executar(Duration.ofSeconds(DURACAO_S));
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        Histogram total = new Histogram(TimeUnit.MINUTES.toMicros(1), 3);
+        latencias.values().forEach(total::add);
+        double p99 = total.getValueAtPercentile(99) / 1000.0;
+        double vazao = concluidas.get() / segundos;
+        double taxaErros = concluidas.get() == 0 ? 1 : (double) erros.get() / concluidas.get();
+
+        relatar(total, segundos, vazao, taxaErros);
+
+        assertTrue(p99 <= SLO_P99_MS, String.format("p99 de %.2f ms acima do SLO de %.2f ms", p99, SLO_P99_MS));
+        assertTrue(vazao >= SLO_VAZAO, String.format("Vazão de %.1f req/s abaixo do SLO de %.1f req/s", vazao, SLO_VAZAO));
+        assertTrue(taxaErros <= SLO_ERROS, String.format("%.4f de erros acima do SLO de %.4f", taxaErros, SLO_ERROS));
+    }
+
+    // =============================
+    // GERAÇÃO DE CARGA
+    // =============================
+
+    // Descarta o que foi medido no aquecimento (JIT, pool de conexões, caches do Hibernate)
+    private void zerar() {
+        for (Operacao operacao : Operacao.values()) {
+            latencias.put(operacao, new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3));
+        }
+        concluidas.set(0);
+        erros.set(0);
+    }
+
+    // Uma thread agenda as requisições no ritmo da taxa; o pool as executa. Se o pool não der conta,
+    // a fila cresce e o atraso entra na latência medida (a partir do horário previsto).
+    private void executar(Duration duracao) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        SplittableRandom random = new SplittableRandom(SEMENTE);
+        long intervalo = TimeUnit.SECONDS.toNanos(1) / TAXA;
+        long inicio = System.nanoTime();
+        long total = duracao.toSeconds() * TAXA;
+
+        for (long i = 0; i < total; i++) {
+            long previsto = inicio + i * intervalo;
+            long espera = previsto - System.nanoTime();
+            if (espera > 0) {
+                LockSupport.parkNanos(espera);
+            }
+            Operacao operacao = sortear(random.nextInt(100));
+            HttpRequest request = requisicao(operacao, random);
+            pool.execute(() -> enviar(operacao, request, previsto));
+        }
+
+        pool.shutdown();
+        if (!pool.awaitTermination(1, TimeUnit.MINUTES)) {
+            pool.shutdownNow();
+        }
+    }
+
+    private void enviar(Operacao operacao, HttpRequest request, long previsto) {
+        try {
+            HttpResponse<Void> resposta = client.send(request, HttpResponse.BodyHandlers.discarding());
+            if (resposta.statusCode() >= 300) {
+                erros.incrementAndGet();
+            }
+        } catch (IOException e) {
+            erros.incrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - previsto);
+        latencias.get(operacao).recordValue(Math.min(micros, TimeUnit.MINUTES.toMicros(1)));
+        concluidas.incrementAndGet();
+    }
+
+    private static Operacao sortear(int sorteio) {
+        int acumulado = 0;
+        for (Operacao operacao : Operacao.values()) {
+            acumulado += MIX[operacao.ordinal()];
+            if (sorteio < acumulado) {
+                return operacao;
+            }
+        }
+        return Operacao.BUSCAR;
+    }
+
+    private HttpRequest requisicao(Operacao operacao, SplittableRandom random) {
+        long id = ids[random.nextInt(ids.length)];
+        return switch (operacao) {
+            case BUSCAR -> get(base + "/" + id);
+            case LISTAR -> get(base + "?tag=" + REGIOES[random.nextInt(REGIOES.length)]
+                    + "&page=" + random.nextInt(50) + "&size=20");
+            case FAVORITAR -> HttpRequest.newBuilder(URI.create(base + "/" + id
+                            + (random.nextBoolean() ? "/favoritar" : "/desfavoritar")))
+                    .timeout(Duration.ofSeconds(30))
+                    .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                    .build();
+            case CRIAR -> HttpRequest.newBuilder(URI.create(base))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(novoContato()))
+                    .build();
+        };
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(30)).GET().build();
+    }
+
+    // Celulares fora da faixa do seed (que numera a partir de 0), para não colidir na unique
+    private String novoContato() {
+        long sequencia = novosCelulares.incrementAndGet();
+        return String.format("{\"nome\":\"Carga %d\",\"celular\":\"119%08d\",\"email\":\"carga%d@exemplo.com.br\"}",
+                sequencia, 90_000_000 + sequencia, sequencia);
+    }
+
+    // =============================
+    // RELATÓRIO
+    // =============================
+
+    private void relatar(Histogram total, double segundos, double vazao, double taxaErros) throws IOException {
+        Files.createDirectories(SAIDA);
+        StringBuilder relatorio = new StringBuilder();
+        relatorio.append(String.format("Taxa alvo %d req/s, %d contatos, %.1f s medidos, mix %s%n",
+                TAXA, CONTATOS, segundos, Arrays.toString(MIX)));
+        relatorio.append(String.format("Vazão %.1f req/s, erros %.4f%n", vazao, taxaErros));
+        relatorio.append(String.format("%-10s %10s %10s %10s %10s %10s%n", "operacao", "total", "p50 ms", "p99 ms",
+                "p99.9 ms", "max ms"));
+        for (Map.Entry<Operacao, Histogram> entrada : new TreeMap<>(latencias).entrySet()) {
+            linha(relatorio, entrada.getKey().name(), entrada.getValue());
+            gravarDistribuicao(entrada.getKey().name().toLowerCase(Locale.ROOT), entrada.getValue());
+        }
+        linha(relatorio, "TOTAL", total);
+        gravarDistribuicao("total", total);
+        relatorio.append(String.format("SLO: p99 <= %.2f ms, vazão >= %.1f req/s, erros <= %.4f%n",
+                SLO_P99_MS, SLO_VAZAO, SLO_ERROS));
+
+        Files.writeString(SAIDA.resolve("relatorio.txt"), relatorio);
+        log.info("Relatório de carga ({}):{}{}", SAIDA.resolve("relatorio.txt"), System.lineSeparator(), relatorio);
+    }
+
+    private static void linha(StringBuilder relatorio, String nome, Histogram histograma) {
+        relatorio.append(String.format("%-10s %10d %10.2f %10.2f %10.2f %10.2f%n", nome, histograma.getTotalCount(),
+                histograma.getValueAtPercentile(50) / 1000.0, histograma.getValueAtPercentile(99) / 1000.0,
+                histograma.getValueAtPercentile(99.9) / 1000.0, histograma.getMaxValue() / 1000.0));
+    }
+
+    // Formato do HdrHistogram (plotável em hdrhistogram.github.io/HdrHistogram/plotFiles.html), em ms
+    private static void gravarDistribuicao(String nome, Histogram histograma) throws IOException {
+        try (PrintStream saida = new PrintStream(Files.newOutputStream(SAIDA.resolve(nome + ".hgrm")))) {
+            histograma.outputPercentileDistribution(saida, 1000.0);
+        }
+    }
+
+    private enum Operacao {
+        BUSCAR,
+        LISTAR,
+        FAVORITAR,
+        CRIAR
+    }
+}
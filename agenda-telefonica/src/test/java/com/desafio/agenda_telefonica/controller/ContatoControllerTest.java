@@ -1,8 +1,15 @@
 package com.desafio.agenda_telefonica.controller;
 
 import com.desafio.agenda_telefonica.dto.ResponseDTO;
+import com.desafio.agenda_telefonica.exception.CelularDuplicadoException;
+import com.desafio.agenda_telefonica.exception.ContatoNaoEncontradoException;
+import com.desafio.agenda_telefonica.exception.RecursoNaoSuportadoException;
 import com.desafio.agenda_telefonica.model.Contato;
+import com.desafio.agenda_telefonica.model.Tag;
+import com.desafio.agenda_telefonica.repository.ContatoFiltro;
 import com.desafio.agenda_telefonica.service.ContatoService;
+import com.desafio.agenda_telefonica.tenant.TenantContext;
+import com.desafio.agenda_telefonica.tenant.TenantFilter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,11 +17,16 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -68,6 +80,18 @@ class ContatoControllerTest {
         verify(service).salvar(any(Contato.class));
     }
 
+    @Test
+    void deveRetornarConflitoAoSalvarComCelularDuplicado() throws Exception {
+        when(service.salvar(any())).thenThrow(new CelularDuplicadoException());
+
+        mockMvc.perform(post("/api/contatos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(contato)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value("error"))
+                .andExpect(jsonPath("$.mensagem").value("Celular já cadastrado!"));
+    }
+
     @Test
     void deveRetornarErroAoSalvarComCelularInvalido() throws Exception {
         when(service.salvar(any())).thenThrow(new IllegalArgumentException("Celular não pode estar vazio"));
@@ -80,6 +104,42 @@ class ContatoControllerTest {
                 .andExpect(jsonPath("$.mensagem").value("Celular não pode estar vazio"));
     }
 
+    @Test
+    void deveRetornarConflitoQuandoCelularEstouraNoCommit() throws Exception {
+        when(service.salvar(any())).thenThrow(new DataIntegrityViolationException(
+                "Unique index or primary key violation: \"PUBLIC.UK_CONTATO_TELEFONE_CELULAR_INDEX_6\""));
+
+        mockMvc.perform(post("/api/contatos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(contato)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.mensagem").value(CelularDuplicadoException.MENSAGEM));
+    }
+
+    @Test
+    void deveRetornarConflitoDeTagQuandoTagNovaECriadaAoMesmoTempo() throws Exception {
+        when(service.salvar(any())).thenThrow(new DataIntegrityViolationException(
+                "duplicate key value violates unique constraint \"uk_tag_tenant_nome\""));
+
+        mockMvc.perform(post("/api/contatos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(contato)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.mensagem").value(ApiExceptionHandler.MSG_TAG_CONCORRENTE));
+    }
+
+    @Test
+    void deveRetornarErroDeDadosParaOutrasViolacoesDeIntegridade() throws Exception {
+        when(service.salvar(any())).thenThrow(new DataIntegrityViolationException(
+                "null value in column \"nome\" of relation \"contato\" violates not-null constraint"));
+
+        mockMvc.perform(post("/api/contatos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(contato)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.mensagem").value(ApiExceptionHandler.MSG_DADOS_INVALIDOS));
+    }
+
     // =============================
     // GET /api/contatos
     // =============================
@@ -93,6 +153,58 @@ class ContatoControllerTest {
                 .andExpect(jsonPath("$[0].nome").value("Allysson"));
     }
 
+    @Test
+    void deveListarContatosPorTagPaginado() throws Exception {
+        contato.setTags(Set.of(new Tag("vendas")));
+        when(service.listarPorTag(eq("vendas"), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(contato), PageRequest.of(0, 20), 41));
+
+        mockMvc.perform(get("/api/contatos").param("tag", "vendas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].nome").value("Allysson"))
+                .andExpect(jsonPath("$.content[0].tags[0]").value("vendas"))
+                .andExpect(jsonPath("$.page.totalElements").value(41));
+    }
+
+    @Test
+    void deveListarPaginadoComFiltrosETotalEstimadoNoHeader() throws Exception {
+        when(service.listar(eq(new ContatoFiltro(true, null, true, null)), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(contato), PageRequest.of(0, 20), 1500));
+
+        mockMvc.perform(get("/api/contatos").param("page", "0").param("sort", "email,desc")
+                        .param("ativo", "true").param("comEmail", "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ContatoController.HEADER_TOTAL, "1500"))
+                .andExpect(jsonPath("$[0].nome").value("Allysson"));
+    }
+
+    @Test
+    void deveRetornarTotalPorTag() throws Exception {
+        when(service.totalPorTag("vendas")).thenReturn(41L);
+
+        mockMvc.perform(get("/api/contatos/totalPorTag").param("tag", "vendas"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("41"));
+    }
+
+    @Test
+    void deveRetornarNaoImplementadoQuandoArmazenamentoNaoTemTags() throws Exception {
+        when(service.totalPorTag("vendas")).thenThrow(new RecursoNaoSuportadoException("Tags não são suportadas neste armazenamento"));
+
+        mockMvc.perform(get("/api/contatos/totalPorTag").param("tag", "vendas"))
+                .andExpect(status().isNotImplemented())
+                .andExpect(jsonPath("$.mensagem").value("Tags não são suportadas neste armazenamento"));
+    }
+
+    // UnsupportedOperationException do JDK (ex.: coleção imutável) é bug, não recurso ausente
+    @Test
+    void deveRetornarErroInternoParaUnsupportedOperationDoJdk() throws Exception {
+        when(service.totalPorTag("vendas")).thenThrow(new UnsupportedOperationException());
+
+        mockMvc.perform(get("/api/contatos/totalPorTag").param("tag", "vendas"))
+                .andExpect(status().isInternalServerError());
+    }
+
     // =============================
     // GET /api/contatos/{id}
     // =============================
@@ -104,7 +216,10 @@ class ContatoControllerTest {
         mockMvc.perform(get("/api/contatos/1"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.status").value("success"))
-                .andExpect(jsonPath("$.mensagem").value("Contato encontrado com sucesso!"));
+                .andExpect(jsonPath("$.mensagem").value("Contato encontrado com sucesso!"))
+                .andExpect(jsonPath("$.data.id").value(1))
+                .andExpect(jsonPath("$.data.celular").value("81999999999"))
+                .andExpect(jsonPath("$.data.favorito").value(false));
 
     }
 
@@ -114,7 +229,7 @@ class ContatoControllerTest {
         when(service.buscarPorId(1L)).thenReturn(Optional.empty());
 
         mockMvc.perform(get("/api/contatos/1"))
-                .andExpect(status().isBadRequest()) // o controller captura IllegalArgumentException e devolve 400
+                .andExpect(status().isNotFound()) // ContatoNaoEncontradoException vira 404 no ApiExceptionHandler
                 .andExpect(jsonPath("$.status").value("error"))
                 .andExpect(jsonPath("$.mensagem").value("Contato não encontrado com ID: 1"));
     }
@@ -139,14 +254,14 @@ class ContatoControllerTest {
 
     @Test
     void deveRetornarErroAoAtualizarContatoInexistente() throws Exception {
-        when(service.atualizar(eq(99L), any())).thenThrow(new IllegalArgumentException("Contato não encontrado"));
+        when(service.atualizar(eq(99L), any())).thenThrow(new ContatoNaoEncontradoException(99L));
 
         mockMvc.perform(put("/api/contatos/99")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(contato)))
-                .andExpect(status().isBadRequest())
+                .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.status").value("error"))
-                .andExpect(jsonPath("$.mensagem").value("Contato não encontrado"));
+                .andExpect(jsonPath("$.mensagem").value("Contato não encontrado com ID: 99"));
     }
 
     // =============================
@@ -159,7 +274,8 @@ class ContatoControllerTest {
 
         mockMvc.perform(patch("/api/contatos/1/inativar"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.mensagem").value("Contato inativado com sucesso!"));
+                .andExpect(jsonPath("$.mensagem").value("Contato inativado com sucesso!"))
+                .andExpect(jsonPath("$.data").doesNotExist());
     }
 
     // =============================
@@ -190,6 +306,15 @@ class ContatoControllerTest {
                 .andExpect(jsonPath("$.mensagem").value("Contato marcado como favorito com sucesso!"));
     }
 
+    @Test
+    void deveRetornarNaoEncontradoAoFavoritarContatoInexistente() throws Exception {
+        when(service.favoritar(7L)).thenThrow(new ContatoNaoEncontradoException(7L));
+
+        mockMvc.perform(patch("/api/contatos/7/favoritar"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.mensagem").value("Contato não encontrado com ID: 7"));
+    }
+
     // =============================
     // PATCH /api/contatos/{id}/desfavoritar
     // =============================
@@ -233,6 +358,28 @@ class ContatoControllerTest {
                 .andExpect(content().string("10"));
     }
 
+    @Test
+    void deveUsarTenantDoHeaderNaRequisicao() throws Exception {
+        when(service.totalContatos()).thenAnswer(inv -> "loja-1".equals(TenantContext.getTenantId()) ? 5L : 0L);
+
+        mockMvc.perform(get("/api/contatos/total").header(TenantFilter.HEADER, "loja-1"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("5"));
+
+        mockMvc.perform(get("/api/contatos/total"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("0"));
+    }
+
+    @Test
+    void deveRejeitarTenantInvalido() throws Exception {
+        mockMvc.perform(get("/api/contatos/total").header(TenantFilter.HEADER, "loja 1; drop"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.mensagem").value("Tenant inválido"));
+
+        verifyNoInteractions(service);
+    }
+
     @Test
     void deveRetornarTotalDeAtivos() throws Exception {
         when(service.totalContatosAtivos()).thenReturn(8L);
@@ -0,0 +1,60 @@
+package com.desafio.agenda_telefonica.dev;
+
+import com.desafio.agenda_telefonica.service.ArquivamentoService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Seed na subida (40 contatos) e retomada depois de o arquivamento tirar linhas da tabela contato
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:seed;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "agenda.seed.quantidade=40",
+        "agenda.seed.lote=16",
+        "agenda.arquivamento.pausa-ms=0"})
+@ActiveProfiles("dev")
+class DadosDevSeederTest {
+
+    @Autowired
+    private DadosDevSeeder seeder;
+
+    @Autowired
+    private ArquivamentoService arquivamento;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void deveRetomarDepoisDosContatosArquivadosSemRepetirCelular() {
+        assertEquals(40, contar("select count(*) from contato"));
+
+        jdbcTemplate.update("update contato set ativo = false, inativado_em = ? where id in "
+                + "(select id from contato order by id limit 5)", Timestamp.from(Instant.now().minus(Duration.ofDays(400))));
+        arquivamento.arquivar();
+        long arquivados = contar("select count(*) from contato_arquivo");
+        assertTrue(arquivados >= 5);
+
+        // Mesma quantidade: o que foi arquivado conta como já gerado
+        seeder.run(null);
+        assertEquals(40, contar("select count(*) from contato") + arquivados);
+
+        ReflectionTestUtils.setField(seeder, "quantidade", 50);
+        seeder.run(null);
+
+        assertEquals(50, contar("select count(*) from contato") + arquivados);
+        assertEquals(50, contar("select count(distinct celular) from (select celular from contato "
+                + "union all select celular from contato_arquivo) c"));
+    }
+
+    private long contar(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
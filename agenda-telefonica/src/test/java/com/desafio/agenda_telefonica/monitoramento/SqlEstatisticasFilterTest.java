@@ -0,0 +1,68 @@
+package com.desafio.agenda_telefonica.monitoramento;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlEstatisticasFilterTest {
+
+    private SqlEstatisticasFilter filter;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        filter = new SqlEstatisticasFilter();
+        ReflectionTestUtils.setField(filter, "limiteRepeticoes", 3);
+        jdbcTemplate = new JdbcTemplate(new DataSourceMonitorado(
+                new DriverManagerDataSource("jdbc:h2:mem:monitoramento;DB_CLOSE_DELAY=-1", "sa", ""), 200));
+        jdbcTemplate.execute("create table if not exists item (id bigint primary key, nome varchar(40))");
+    }
+
+    @Test
+    void deveInformarQuantidadeETempoDeSqlNosHeaders() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/contatos"), response, (req, res) -> {
+            jdbcTemplate.queryForObject("select count(*) from item", Long.class);
+            jdbcTemplate.update("merge into item key (id) values (?, ?)", 1L, "um");
+            res.getOutputStream().write("[]".getBytes(StandardCharsets.UTF_8));
+        });
+
+        assertEquals("2", response.getHeader(SqlEstatisticasFilter.HEADER_QUANTIDADE));
+        assertTrue(response.getHeader(SqlEstatisticasFilter.HEADER_TEMPO).startsWith("db;dur="));
+        assertEquals("[]", response.getContentAsString());
+    }
+
+    @Test
+    void deveContarSelectRepetidoNaRequisicao() {
+        EstatisticasSql estatisticas = EstatisticasSql.iniciar();
+        try {
+            for (long id = 1; id <= 3; id++) {
+                jdbcTemplate.queryForList("select nome from item where id = ?", String.class, id);
+            }
+            jdbcTemplate.queryForObject("select count(*) from item", Long.class);
+        } finally {
+            EstatisticasSql.encerrar();
+        }
+
+        assertEquals(4, estatisticas.getTotal());
+        assertEquals(Map.of("select nome from item where id = ?", 3), estatisticas.repetidos(3));
+    }
+
+    @Test
+    void naoDeveContarForaDeRequisicao() {
+        jdbcTemplate.queryForObject("select count(*) from item", Long.class);
+
+        assertNull(EstatisticasSql.atual());
+    }
+}
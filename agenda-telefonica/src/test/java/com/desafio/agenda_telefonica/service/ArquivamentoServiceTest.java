@@ -0,0 +1,160 @@
+package com.desafio.agenda_telefonica.service;
+
+import com.desafio.agenda_telefonica.dto.ContatoInativoDTO;
+import com.desafio.agenda_telefonica.exception.CelularDuplicadoException;
+import com.desafio.agenda_telefonica.model.Contato;
+import com.desafio.agenda_telefonica.model.ContatoTelefone;
+import com.desafio.agenda_telefonica.model.Tag;
+import com.desafio.agenda_telefonica.model.TipoTelefone;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// O arquivamento é SQL nativo (INSERT ... SELECT, FOR UPDATE SKIP LOCKED): roda contra o H2 em modo PostgreSQL do profile dev
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:arquivamento;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "agenda.arquivamento.pausa-ms=0"})
+@ActiveProfiles("dev")
+class ArquivamentoServiceTest {
+
+    @Autowired
+    private ContatoService contatoService;
+
+    @Autowired
+    private ArquivamentoService arquivamento;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    // Os testes dividem o banco: o arquivo começa vazio em cada um (a listagem de inativos conta o que houver nele)
+    @BeforeEach
+    void limparArquivo() {
+        jdbcTemplate.update("delete from contato_arquivo_telefone");
+        jdbcTemplate.update("delete from contato_arquivo_tag");
+        jdbcTemplate.update("delete from contato_arquivo");
+    }
+
+    @Test
+    void deveArquivarListarERestaurarInativosAntigos() {
+        // Tag com vírgula: telefones e tags vão para tabelas filhas, sem separador para quebrar na restauração
+        Contato antigo = contatoService.salvar(contato("Ana Arquivada", "81999990001", "8132221111",
+                "arquivo-vendas", "recife, olinda"));
+        Contato recente = contatoService.salvar(contato("Bruno Recente", "81999990002", null));
+        Contato ativo = contatoService.salvar(contato("Carla Ativa", "81999990003", null));
+        contatoService.inativar(antigo.getId());
+        contatoService.inativar(recente.getId());
+        jdbcTemplate.update("update contato set inativado_em = ? where id = ?",
+                Timestamp.from(Instant.now().minus(Duration.ofDays(200))), antigo.getId());
+
+        arquivamento.arquivar();
+
+        assertEquals(0, contar("select count(*) from contato where id = ?", antigo.getId()));
+        assertEquals(0, contar("select count(*) from contato_telefone where contato_id = ?", antigo.getId()));
+        assertEquals(1, contar("select count(*) from contato_arquivo where id = ?", antigo.getId()));
+        assertEquals(1, contar("select count(*) from contato where id = ?", recente.getId()));
+        assertEquals(1, contar("select count(*) from contato where id = ?", ativo.getId()));
+        assertEquals(0, tagService.totalPorTag("arquivo-vendas"));
+        assertEquals(2, contar("select count(*) from contato_arquivo_telefone where contato_id = ?", antigo.getId()));
+        assertEquals(2, contar("select count(*) from contato_arquivo_tag where contato_id = ?", antigo.getId()));
+
+        Page<ContatoInativoDTO> pagina = contatoService.listarInativos(PageRequest.of(0, 10));
+        assertEquals(2, pagina.getTotalElements());
+        assertEquals(List.of(antigo.getId(), recente.getId()), pagina.getContent().stream().map(ContatoInativoDTO::id).toList());
+        assertTrue(pagina.getContent().get(0).arquivado());
+        assertFalse(pagina.getContent().get(1).arquivado());
+
+        arquivamento.restaurar(antigo.getId());
+
+        assertEquals(0, contar("select count(*) from contato_arquivo where id = ?", antigo.getId()));
+        assertEquals(1, contar("select count(*) from contato where id = ? and ativo = false and inativado_em is not null",
+                antigo.getId()));
+        assertEquals(2, contar("select count(*) from contato_telefone where contato_id = ?", antigo.getId()));
+        assertEquals(1, tagService.totalPorTag("arquivo-vendas"));
+        assertEquals(1, tagService.totalPorTag("recife, olinda"));
+        assertEquals(0, contar("select count(*) from contato_arquivo_tag where contato_id = ?", antigo.getId()));
+        assertTrue(contatoService.buscarPorId(antigo.getId()).isPresent());
+    }
+
+    @Test
+    void devePularContatoTravadoPorOutraTransacao() throws Exception {
+        Contato travado = contatoService.salvar(contato("Fábio Travado", "81999990021", null));
+        Contato livre = contatoService.salvar(contato("Gabi Livre", "81999990022", null));
+        for (Contato contato : List.of(travado, livre)) {
+            contatoService.inativar(contato.getId());
+            jdbcTemplate.update("update contato set inativado_em = ? where id = ?",
+                    Timestamp.from(Instant.now().minus(Duration.ofDays(200))), contato.getId());
+        }
+
+        // Outra transação (ex.: a API reativando o contato) segura a linha durante o arquivamento
+        try (Connection conexao = dataSource.getConnection()) {
+            conexao.setAutoCommit(false);
+            try (PreparedStatement select = conexao.prepareStatement("select id from contato where id = ? for update")) {
+                select.setLong(1, travado.getId());
+                select.executeQuery().close();
+            }
+            arquivamento.arquivar();
+            conexao.rollback();
+        }
+
+        assertEquals(1, contar("select count(*) from contato where id = ?", travado.getId()));
+        assertEquals(0, contar("select count(*) from contato_arquivo where id = ?", travado.getId()));
+        assertEquals(1, contar("select count(*) from contato_arquivo where id = ?", livre.getId()));
+
+        arquivamento.arquivar();
+        assertEquals(1, contar("select count(*) from contato_arquivo where id = ?", travado.getId()));
+    }
+
+    @Test
+    void deveRecusarRestauracaoQuandoCelularFoiReaproveitado() {
+        Contato antigo = contatoService.salvar(contato("Davi Arquivado", "81999990011", null));
+        contatoService.inativar(antigo.getId());
+        jdbcTemplate.update("update contato set inativado_em = ? where id = ?",
+                Timestamp.from(Instant.now().minus(Duration.ofDays(200))), antigo.getId());
+        arquivamento.arquivar();
+        contatoService.salvar(contato("Elisa Nova", "81999990011", null));
+
+        assertThrows(CelularDuplicadoException.class, () -> arquivamento.restaurar(antigo.getId()));
+        assertEquals(1, contar("select count(*) from contato_arquivo where id = ?", antigo.getId()));
+        assertTrue(contatoService.buscarPorId(antigo.getId()).isEmpty());
+    }
+
+    private long contar(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Long.class, args);
+    }
+
+    private static Contato contato(String nome, String celular, String comercial, String... tags) {
+        Contato contato = new Contato();
+        contato.setNome(nome);
+        contato.setCelular(celular);
+        contato.setTelefones(new ArrayList<>());
+        if (comercial != null) {
+            contato.getTelefones().add(new ContatoTelefone(TipoTelefone.COMERCIAL, comercial));
+        }
+        contato.setTags(tags.length == 0 ? null : Arrays.stream(tags).map(Tag::new).collect(Collectors.toSet()));
+        return contato;
+    }
+}
@@ -0,0 +1,145 @@
+package com.desafio.agenda_telefonica.service;
+
+import com.desafio.agenda_telefonica.controller.ContatoHistoricoController;
+import com.desafio.agenda_telefonica.model.Contato;
+import com.desafio.agenda_telefonica.model.ContatoEvento;
+import com.desafio.agenda_telefonica.model.TipoAlteracao;
+import com.desafio.agenda_telefonica.repository.ContatoEventoRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Histórico de alterações de ponta a ponta no H2: gravação pelo evento, exportação em NDJSON e retenção
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:auditoria;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "agenda.auditoria.retencao-dias=30",
+        "agenda.auditoria.retencao.lote=2"})
+@AutoConfigureMockMvc
+class AuditoriaServiceTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ContatoService contatoService;
+
+    @Autowired
+    private AuditoriaService auditoria;
+
+    @Autowired
+    private ContatoEventoRepository eventoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void deveRegistrarAlteracaoNoHistorico() throws Exception {
+        Contato contato = contatoService.salvar(contato("Helena Histórico", "81977770001"));
+
+        mockMvc.perform(patch("/api/contatos/{id}/favoritar", contato.getId())
+                        .header(AuditoriaService.HEADER_USUARIO, "maria"))
+                .andExpect(status().isOk());
+
+        List<ContatoEvento> eventos = eventos(contato.getId());
+        assertEquals(List.of(TipoAlteracao.CRIADO, TipoAlteracao.FAVORITADO),
+                eventos.stream().map(ContatoEvento::getTipo).toList());
+        assertEquals("sistema", eventos.get(0).getUsuario());
+        assertEquals("maria", eventos.get(1).getUsuario());
+        assertEquals("[false,true]", objectMapper.readTree(eventos.get(1).getAlteracoes()).get("favorito").toString());
+    }
+
+    @Test
+    void deveExportarHistoricoEmNdjson() throws Exception {
+        Contato contato = contatoService.salvar(contato("Igor Exportado", "81977770002"));
+        contatoService.inativar(contato.getId());
+
+        List<JsonNode> linhas = ndjson(mockMvc.perform(get("/api/contatos/{id}/history", contato.getId())));
+        assertEquals(List.of("CRIADO", "INATIVADO"), linhas.stream().map(l -> l.get("tipo").asText()).toList());
+        assertTrue(linhas.stream().allMatch(l -> l.get("contatoId").asLong() == contato.getId()));
+        assertEquals("[true,false]", linhas.get(1).get("alteracoes").get("ativo").toString());
+
+        Instant agora = Instant.now();
+        List<JsonNode> periodo = ndjson(mockMvc.perform(get("/api/contatos/history")
+                .param("de", agora.minus(Duration.ofHours(1)).toString())
+                .param("ate", agora.plus(Duration.ofHours(1)).toString())));
+        assertEquals(2, periodo.stream().filter(l -> l.get("contatoId").asLong() == contato.getId()).count());
+
+        mockMvc.perform(get("/api/contatos/history")
+                        .param("de", agora.toString())
+                        .param("ate", agora.toString()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void deveApagarEventosForaDaRetencaoEmLotes() {
+        Contato contato = contatoService.salvar(contato("Júlia Retenção", "81977770003"));
+        Instant antigo = Instant.now().minus(Duration.ofDays(60));
+        for (int i = 0; i < 5; i++) {
+            jdbcTemplate.update("insert into contato_evento (tenant_id, contato_id, tipo, usuario, ocorrido_em, alteracoes) "
+                    + "values ('default', ?, 'ATUALIZADO', 'sistema', ?, '{}')", contato.getId(), Timestamp.from(antigo));
+        }
+        assertEquals(6, eventos(contato.getId()).size());
+
+        auditoria.aplicarRetencao();
+
+        List<ContatoEvento> restantes = eventos(contato.getId());
+        assertEquals(List.of(TipoAlteracao.CRIADO), restantes.stream().map(ContatoEvento::getTipo).toList());
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from contato_evento where ocorrido_em < ?",
+                Long.class, Timestamp.from(Instant.now().minus(Duration.ofDays(30)))));
+    }
+
+    private List<ContatoEvento> eventos(Long contatoId) {
+        return eventoRepository.findByContatoIdAndIdGreaterThanOrderByIdAsc(contatoId, 0L, Limit.unlimited());
+    }
+
+    // O corpo é um StreamingResponseBody: a requisição vira assíncrona e o conteúdo sai no dispatch
+    private List<JsonNode> ndjson(ResultActions acoes) throws Exception {
+        MvcResult iniciado = acoes.andExpect(request().asyncStarted()).andReturn();
+        String corpo = mockMvc.perform(asyncDispatch(iniciado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(ContatoHistoricoController.NDJSON))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        List<JsonNode> linhas = new ArrayList<>();
+        for (String linha : corpo.split("\n")) {
+            if (!linha.isBlank()) {
+                linhas.add(objectMapper.readTree(linha));
+            }
+        }
+        return linhas;
+    }
+
+    private static Contato contato(String nome, String celular) {
+        Contato contato = new Contato();
+        contato.setNome(nome);
+        contato.setCelular(celular);
+        contato.setTelefones(new ArrayList<>());
+        return contato;
+    }
+}
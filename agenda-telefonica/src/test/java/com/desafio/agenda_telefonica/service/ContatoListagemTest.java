@@ -0,0 +1,60 @@
+package com.desafio.agenda_telefonica.service;
+
+import com.desafio.agenda_telefonica.model.Contato;
+import com.desafio.agenda_telefonica.repository.ContatoFiltro;
+import com.desafio.agenda_telefonica.repository.ContatoRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Total estimado da listagem no H2: exato até agenda.listagem.contagem-exata-ate (contagem limitada);
+// acima disso, sem as estatísticas do PostgreSQL, cai no count(*)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:listagem;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "agenda.listagem.contagem-exata-ate=2"})
+@Transactional
+class ContatoListagemTest {
+
+    @Autowired
+    private ContatoService contatoService;
+
+    @Autowired
+    private ContatoRepository repository;
+
+    @Test
+    void deveEstimarTotalPorFiltro() {
+        Contato favorito = contatoService.salvar(contato("Ana Favorita", "81966660001", "ana@exemplo.com"));
+        contatoService.favoritar(favorito.getId());
+        contatoService.salvar(contato("Bia Sem Email", "81966660002", null));
+        contatoService.salvar(contato("Caio Com Email", "81966660003", "caio@exemplo.com"));
+        Contato inativo = contatoService.salvar(contato("Duda Inativa", "81966660004", null));
+        contatoService.inativar(inativo.getId());
+
+        assertEquals(1, repository.estimar(new ContatoFiltro(true, true, null, null)));
+        assertEquals(1, repository.estimar(new ContatoFiltro(true, null, false, null)));
+        assertEquals(0, repository.estimar(new ContatoFiltro(true, null, null, true)));
+        // Acima do limite da contagem exata
+        assertEquals(3, repository.estimar(new ContatoFiltro(true, null, null, false)));
+        assertEquals(3, repository.estimar(new ContatoFiltro(true, null, null, null)));
+        assertEquals(4, repository.estimar(new ContatoFiltro(null, null, null, null)));
+    }
+
+    private static Contato contato(String nome, String celular, String email) {
+        Contato contato = new Contato();
+        contato.setNome(nome);
+        contato.setCelular(celular);
+        contato.setEmail(email);
+        contato.setTelefones(new ArrayList<>());
+        return contato;
+    }
+}
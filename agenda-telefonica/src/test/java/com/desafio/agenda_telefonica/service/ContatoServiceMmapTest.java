@@ -0,0 +1,370 @@
+package com.desafio.agenda_telefonica.service;
+
+import com.desafio.agenda_telefonica.evento.ContatoAlteradoEvent;
+import com.desafio.agenda_telefonica.exception.CelularDuplicadoException;
+import com.desafio.agenda_telefonica.exception.ContatoNaoEncontradoException;
+import com.desafio.agenda_telefonica.exception.RecursoNaoSuportadoException;
+import com.desafio.agenda_telefonica.model.Contato;
+import com.desafio.agenda_telefonica.model.ContatoTelefone;
+import com.desafio.agenda_telefonica.model.Tag;
+import com.desafio.agenda_telefonica.model.TipoAlteracao;
+import com.desafio.agenda_telefonica.model.TipoTelefone;
+import com.desafio.agenda_telefonica.repository.ContatoFiltro;
+import com.desafio.agenda_telefonica.repository.mmap.MmapContatoArmazenamento;
+import com.desafio.agenda_telefonica.tenant.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+// Os cenários do ContatoServiceTest contra o armazenamento embarcado real (profile edge), num arquivo temporário
+class ContatoServiceMmapTest {
+
+    @TempDir
+    Path pasta;
+
+    @Mock
+    private ApplicationEventPublisher eventos;
+
+    @InjectMocks
+    private ContatoService service;
+
+    private MmapContatoArmazenamento armazenamento;
+
+    private Contato contato;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        armazenamento = abrir();
+        ReflectionTestUtils.setField(service, "repository", armazenamento);
+
+        contato = service.salvar(novoContato("Allysson", "81999999999", "8133333333"));
+        clearInvocations(eventos);
+    }
+
+    @AfterEach
+    void tearDown() {
+        armazenamento.fechar();
+        TenantContext.limpar();
+    }
+
+    // =============================
+    // TESTES: SALVAR
+    // =============================
+
+    @Test
+    void deveSalvarContatoComSucesso() {
+        Contato salvo = service.salvar(novoContato("Maria", "81988887777", null));
+
+        assertNotNull(salvo.getId());
+        assertEquals("Maria", service.buscarPorId(salvo.getId()).orElseThrow().getNome());
+        assertTrue(service.buscarPorId(salvo.getId()).orElseThrow().isAtivo());
+    }
+
+    @Test
+    void deveLancarExcecaoSeCelularVazio() {
+        assertThrows(IllegalArgumentException.class, () -> service.salvar(novoContato("Maria", "", null)));
+        assertEquals(1L, service.totalContatos());
+    }
+
+    @Test
+    void deveLancarExcecaoSeCelularDuplicado() {
+        assertThrows(CelularDuplicadoException.class,
+                () -> service.salvar(novoContato("Outro", "(81) 99999-9999", null)));
+        assertEquals(1L, service.totalContatos());
+    }
+
+    // =============================
+    // TESTES: TELEFONES
+    // =============================
+
+    @Test
+    void deveGravarCelularTelefoneEAdicionaisSemRepetir() {
+        Contato novo = novoContato("Maria", "(81) 98888-7777", "81 3333-4444");
+        novo.setTelefones(new ArrayList<>(List.of(
+                new ContatoTelefone(TipoTelefone.CELULAR, "+55 81 98888-7777"),
+                new ContatoTelefone(TipoTelefone.COMERCIAL, "8132221111"))));
+
+        Contato salvo = service.salvar(novo);
+        Contato lido = service.buscarPorId(salvo.getId()).orElseThrow();
+
+        assertEquals(List.of("81988887777", "8133334444", "8132221111"),
+                lido.getTelefones().stream().map(ContatoTelefone::getNumeroNormalizado).toList());
+        assertEquals(TipoTelefone.COMERCIAL, lido.getTelefones().get(2).getTipo());
+    }
+
+    @Test
+    void deveLancarExcecaoSeCelularAdicionalPertenceAOutroContato() {
+        Contato outro = service.salvar(novoContato("Maria", "81977776666", null));
+
+        Contato atualizado = novoContato("Allysson", "81999999999", null);
+        atualizado.setTelefones(List.of(new ContatoTelefone(TipoTelefone.CELULAR, "81977776666")));
+
+        assertThrows(CelularDuplicadoException.class, () -> service.atualizar(contato.getId(), atualizado));
+        assertEquals(List.of(outro.getId()), armazenamento.findContatoIdsPorCelulares(List.of("81977776666")));
+    }
+
+    @Test
+    void deveManterTelefonesAdicionaisQuandoNaoInformadosNoAtualizar() {
+        Contato comAdicional = novoContato("Allysson", "81999999999", null);
+        comAdicional.setTelefones(List.of(new ContatoTelefone(TipoTelefone.COMERCIAL, "8132221111")));
+        service.atualizar(contato.getId(), comAdicional);
+
+        service.atualizar(contato.getId(), novoContato("Allysson", "81988888888", null));
+
+        assertEquals(List.of("81988888888", "8132221111"), service.buscarPorId(contato.getId()).orElseThrow()
+                .getTelefones().stream().map(ContatoTelefone::getNumeroNormalizado).toList());
+        assertTrue(armazenamento.findByCelular("81999999999").isEmpty());
+    }
+
+    // =============================
+    // TESTES: ATUALIZAR / DELETAR
+    // =============================
+
+    @Test
+    void deveAtualizarContatoComSucesso() {
+        Contato result = service.atualizar(contato.getId(), novoContato("Allysson Atualizado", "81988888888", null));
+
+        assertEquals("Allysson Atualizado", result.getNome());
+        assertEquals(contato.getId(), armazenamento.findByCelular("81988888888").orElseThrow().getId());
+        assertEquals(1L, service.totalContatos());
+    }
+
+    @Test
+    void deveLancarExcecaoAoAtualizarContatoInexistente() {
+        assertThrows(ContatoNaoEncontradoException.class, () -> service.atualizar(99L, contato));
+    }
+
+    @Test
+    void deveDeletarContatoComSucesso() {
+        service.deletarPorId(contato.getId());
+
+        assertTrue(service.buscarPorId(contato.getId()).isEmpty());
+        assertEquals(0L, service.totalContatos());
+        // O celular fica livre para outro contato
+        service.salvar(novoContato("Maria", "81999999999", null));
+    }
+
+    @Test
+    void deveLancarExcecaoAoDeletarInexistente() {
+        assertThrows(ContatoNaoEncontradoException.class, () -> service.deletarPorId(2L));
+    }
+
+    // =============================
+    // TESTES: ATIVAR / INATIVAR / FAVORITAR
+    // =============================
+
+    @Test
+    void deveInativarEAtivarContato() {
+        service.inativar(contato.getId());
+        assertFalse(service.buscarPorId(contato.getId()).orElseThrow().isAtivo());
+
+        service.ativar(contato.getId());
+        assertTrue(service.buscarPorId(contato.getId()).orElseThrow().isAtivo());
+    }
+
+    @Test
+    void devePublicarEventoSoComOCampoAlteradoAoInativar() {
+        service.inativar(contato.getId());
+
+        ArgumentCaptor<ContatoAlteradoEvent> captor = ArgumentCaptor.forClass(ContatoAlteradoEvent.class);
+        verify(eventos).publishEvent(captor.capture());
+        assertEquals(TipoAlteracao.INATIVADO, captor.getValue().tipo());
+        assertEquals(Map.of("ativo", Arrays.asList(true, false)), captor.getValue().alteracoes());
+    }
+
+    @Test
+    void deveFavoritarEDesfavoritarContato() {
+        assertTrue(service.favoritar(contato.getId()).isFavorito());
+        assertEquals(1L, service.totalFavoritos());
+
+        assertFalse(service.desfavoritar(contato.getId()).isFavorito());
+        assertEquals(0L, service.totalFavoritos());
+    }
+
+    @Test
+    void deveLancarNaoEncontradoAoFavoritarContatoInexistente() {
+        assertThrows(ContatoNaoEncontradoException.class, () -> service.favoritar(5L));
+    }
+
+    // =============================
+    // TESTES: LISTAGENS / CONTAGENS
+    // =============================
+
+    @Test
+    void deveListarEContarPorSituacao() {
+        Contato maria = service.salvar(novoContato("Maria", "81988887777", null));
+        Contato joao = service.salvar(novoContato("João", "81977776666", null));
+        service.favoritar(maria.getId());
+        service.inativar(joao.getId());
+
+        assertEquals(List.of(contato.getId(), maria.getId()), service.listar().stream().map(Contato::getId).toList());
+        assertEquals(List.of(maria.getId()), service.listarFavoritos().stream().map(Contato::getId).toList());
+        assertEquals(List.of(joao.getId()), service.listarInativos().stream().map(Contato::getId).toList());
+        assertEquals(3L, service.totalContatos());
+        assertEquals(2L, service.totalContatosAtivos());
+        assertEquals(1L, service.totalContatosInativos());
+        assertEquals(1L, service.totalFavoritos());
+    }
+
+    @Test
+    void deveListarComFiltrosEOrdenacao() {
+        Contato maria = service.salvar(novoContato("Maria", "81988887777", null));
+        Contato ana = service.salvar(novoContato("Ana", "81977776666", "8132221111"));
+        service.inativar(maria.getId());
+
+        Page<Contato> ativosComTelefone = service.listar(new ContatoFiltro(true, null, null, true),
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "nome")));
+        Page<Contato> todos = service.listar(new ContatoFiltro(null, null, true, null), PageRequest.of(0, 2));
+
+        assertEquals(List.of(ana.getId(), contato.getId()), ativosComTelefone.stream().map(Contato::getId).toList());
+        assertEquals(2L, ativosComTelefone.getTotalElements());
+        assertEquals(List.of(contato.getId(), ana.getId()), todos.stream().map(Contato::getId).toList());
+        assertEquals(3L, todos.getTotalElements());
+    }
+
+    @Test
+    void deveSepararContatosPorTenant() {
+        TenantContext.setTenantId("loja-2");
+
+        assertTrue(service.buscarPorId(contato.getId()).isEmpty());
+        assertEquals(0L, service.totalContatos());
+        // Mesmo celular em outro tenant é permitido
+        service.salvar(novoContato("Allysson", "81999999999", null));
+        assertEquals(1L, service.totalContatos());
+    }
+
+    @Test
+    void deveRecusarTags() {
+        Contato comTag = novoContato("Maria", "81988887777", null);
+        comTag.setTags(Set.of(new Tag("vendas")));
+
+        assertThrows(RecursoNaoSuportadoException.class, () -> service.salvar(comTag));
+        assertThrows(RecursoNaoSuportadoException.class, () -> service.totalPorTag("vendas"));
+    }
+
+    // =============================
+    // TESTES: ARQUIVO
+    // =============================
+
+    @Test
+    void deveRecuperarContatosAoReabrirOArquivo() {
+        Contato maria = service.salvar(novoContato("Maria", "81988887777", null));
+        service.favoritar(maria.getId());
+        service.deletarPorId(contato.getId());
+        armazenamento.fechar();
+
+        armazenamento = abrir();
+        ReflectionTestUtils.setField(service, "repository", armazenamento);
+
+        assertTrue(service.buscarPorId(contato.getId()).isEmpty());
+        assertTrue(service.buscarPorId(maria.getId()).orElseThrow().isFavorito());
+        assertEquals(1L, service.totalFavoritos());
+        // IDs não são reaproveitados, mesmo o do último contato removido
+        assertTrue(service.salvar(novoContato("João", "81977776666", null)).getId() > maria.getId());
+    }
+
+    @Test
+    void deveCompactarMantendoSoOsRegistrosVivos() throws Exception {
+        ReflectionTestUtils.setField(armazenamento, "minimoParaCompactar", 10);
+        for (int i = 0; i < 20; i++) {
+            service.favoritar(contato.getId());
+            service.desfavoritar(contato.getId());
+        }
+        long antes = Files.size(pasta.resolve("contatos.dat"));
+
+        armazenamento.compactar();
+
+        assertEquals(1L, service.totalContatos());
+        assertEquals("Allysson", service.buscarPorId(contato.getId()).orElseThrow().getNome());
+        assertEquals(Integer.valueOf(1), ReflectionTestUtils.getField(armazenamento, "registros"));
+        assertTrue(Files.size(pasta.resolve("contatos.dat")) <= antes);
+        service.favoritar(contato.getId());
+        assertEquals(1L, service.totalFavoritos());
+    }
+
+    @Test
+    void deveCompactarVersoesMortasEmVezDeCrescerQuandoChegaAoLimite() throws Exception {
+        reabrirComLimite(8);
+        long tamanho = Files.size(pasta.resolve("contatos.dat"));
+
+        for (int i = 0; i < 20; i++) {
+            service.favoritar(contato.getId());
+            service.desfavoritar(contato.getId());
+        }
+
+        assertEquals(tamanho, Files.size(pasta.resolve("contatos.dat")));
+        assertEquals(1L, service.totalContatos());
+        assertFalse(service.buscarPorId(contato.getId()).orElseThrow().isFavorito());
+    }
+
+    @Test
+    void deveRecusarGravacaoQuandoLimiteEstaCheioDeContatosVivos() throws Exception {
+        reabrirComLimite(4);
+        for (int i = 1; i < 4; i++) {
+            service.salvar(novoContato("Contato " + i, "8197777000" + i, null));
+        }
+
+        assertThrows(DataAccessResourceFailureException.class,
+                () -> service.salvar(novoContato("Excedente", "81977770009", null)));
+        assertEquals(4L, service.totalContatos());
+
+        // No limite, a remoção compacta o arquivo (sem lápide) e o espaço volta
+        service.deletarPorId(contato.getId());
+        assertNotNull(service.salvar(novoContato("Cabe agora", "81977770009", null)).getId());
+        assertEquals(4L, service.totalContatos());
+    }
+
+    private void reabrirComLimite(int limite) throws Exception {
+        armazenamento.fechar();
+        Files.delete(pasta.resolve("contatos.dat"));
+        armazenamento = abrir(limite);
+        ReflectionTestUtils.setField(service, "repository", armazenamento);
+        contato = service.salvar(novoContato("Allysson", "81999999999", "8133333333"));
+    }
+
+    private MmapContatoArmazenamento abrir() {
+        return abrir(Integer.MAX_VALUE);
+    }
+
+    private MmapContatoArmazenamento abrir(int maximoRegistros) {
+        MmapContatoArmazenamento novo = new MmapContatoArmazenamento();
+        ReflectionTestUtils.setField(novo, "arquivo", pasta.resolve("contatos.dat"));
+        ReflectionTestUtils.setField(novo, "sincronizar", false);
+        ReflectionTestUtils.setField(novo, "minimoParaCompactar", 1000);
+        ReflectionTestUtils.setField(novo, "maximoRegistros", maximoRegistros);
+        novo.abrir();
+        return novo;
+    }
+
+    private static Contato novoContato(String nome, String celular, String telefone) {
+        Contato novo = new Contato();
+        novo.setNome(nome);
+        novo.setCelular(celular);
+        novo.setTelefone(telefone);
+        novo.setEmail(nome.toLowerCase() + "@email.com");
+        return novo;
+    }
+}
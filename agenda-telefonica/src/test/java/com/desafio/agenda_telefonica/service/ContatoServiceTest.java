@@ -1,17 +1,37 @@
 package com.desafio.agenda_telefonica.service;
 
+import com.desafio.agenda_telefonica.evento.ContatoAlteradoEvent;
+import com.desafio.agenda_telefonica.exception.CelularDuplicadoException;
+import com.desafio.agenda_telefonica.exception.ContatoNaoEncontradoException;
 import com.desafio.agenda_telefonica.model.Contato;
+import com.desafio.agenda_telefonica.model.ContatoTelefone;
+import com.desafio.agenda_telefonica.model.Tag;
+import com.desafio.agenda_telefonica.model.TipoAlteracao;
+import com.desafio.agenda_telefonica.model.TipoTelefone;
+import com.desafio.agenda_telefonica.repository.ContatoFiltro;
 import com.desafio.agenda_telefonica.repository.ContatoRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
-
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -21,6 +41,12 @@ class ContatoServiceTest {
     @Mock
     private ContatoRepository repository;
 
+    @Mock
+    private TagService tagService;
+
+    @Mock
+    private ApplicationEventPublisher eventos;
+
     @InjectMocks
     private ContatoService service;
 
@@ -64,20 +90,87 @@ class ContatoServiceTest {
 
     @Test
     void deveLancarExcecaoSeCelularDuplicado() {
-        when(repository.findByCelular("81999999999")).thenReturn(Optional.of(contato));
+        when(repository.findContatoIdsPorCelulares(List.of("81999999999"))).thenReturn(List.of(1L));
 
         Contato novo = new Contato();
         novo.setCelular("81999999999");
 
-        assertThrows(IllegalArgumentException.class, () -> service.salvar(novo));
+        assertThrows(CelularDuplicadoException.class, () -> service.salvar(novo));
     }
 
     @Test
     void deveLancarExcecaoDeIntegridadeAoSalvar() {
         when(repository.findByCelular(anyString())).thenReturn(Optional.empty());
-        when(repository.save(any())).thenThrow(DataIntegrityViolationException.class);
+        when(repository.save(any())).thenThrow(new DataIntegrityViolationException(
+                "duplicate key value violates unique constraint \"uk_contato_tenant_celular\""));
 
-        assertThrows(IllegalArgumentException.class, () -> service.salvar(contato));
+        assertThrows(CelularDuplicadoException.class, () -> service.salvar(contato));
+    }
+
+    @Test
+    void deveManterOutrasViolacoesDeIntegridadeAoSalvar() {
+        when(repository.findByCelular(anyString())).thenReturn(Optional.empty());
+        when(repository.save(any())).thenThrow(new DataIntegrityViolationException(
+                "null value in column \"nome\" violates not-null constraint"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> service.salvar(contato));
+    }
+
+    // =============================
+    // TESTES: TELEFONES
+    // =============================
+
+    @Test
+    void deveGravarCelularTelefoneEAdicionaisSemRepetir() {
+        Contato novo = new Contato();
+        novo.setNome("Maria");
+        novo.setCelular("(81) 98888-7777");
+        novo.setTelefone("81 3333-4444");
+        novo.setTelefones(new ArrayList<>(List.of(
+                new ContatoTelefone(TipoTelefone.CELULAR, "+55 81 98888-7777"),
+                new ContatoTelefone(TipoTelefone.COMERCIAL, "8132221111"))));
+        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Contato salvo = service.salvar(novo);
+
+        assertEquals(List.of("81988887777", "8133334444", "8132221111"),
+                salvo.getTelefones().stream().map(ContatoTelefone::getNumeroNormalizado).toList());
+        assertEquals(TipoTelefone.CELULAR, salvo.getTelefones().get(0).getTipo());
+        assertSame(salvo, salvo.getTelefones().get(2).getContato());
+        verify(repository).findContatoIdsPorCelulares(List.of("81988887777"));
+    }
+
+    @Test
+    void deveLancarExcecaoSeCelularAdicionalPertenceAOutroContato() {
+        contato.setTelefones(new ArrayList<>());
+        when(repository.findById(1L)).thenReturn(Optional.of(contato));
+        when(repository.findContatoIdsPorCelulares(List.of("81999999999", "81977776666"))).thenReturn(List.of(1L, 2L));
+
+        Contato atualizado = new Contato();
+        atualizado.setCelular("81999999999");
+        atualizado.setTelefones(List.of(new ContatoTelefone(TipoTelefone.CELULAR, "81977776666")));
+
+        assertThrows(CelularDuplicadoException.class, () -> service.atualizar(1L, atualizado));
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void deveManterTelefonesAdicionaisQuandoNaoInformadosNoAtualizar() {
+        ContatoTelefone comercial = new ContatoTelefone(TipoTelefone.COMERCIAL, "8132221111");
+        contato.setTelefones(new ArrayList<>(List.of(
+                new ContatoTelefone(TipoTelefone.CELULAR, contato.getCelular()),
+                comercial)));
+        when(repository.findById(1L)).thenReturn(Optional.of(contato));
+        when(repository.save(any())).thenReturn(contato);
+
+        Contato atualizado = new Contato();
+        atualizado.setCelular("81988888888");
+
+        service.atualizar(1L, atualizado);
+
+        assertEquals(List.of("81988888888", "8132221111"),
+                contato.getTelefones().stream().map(ContatoTelefone::getNumeroNormalizado).toList());
+        assertSame(comercial, contato.getTelefones().get(1));
     }
 
     // =============================
@@ -103,7 +196,7 @@ class ContatoServiceTest {
     @Test
     void deveLancarExcecaoAoAtualizarContatoInexistente() {
         when(repository.findById(99L)).thenReturn(Optional.empty());
-        assertThrows(IllegalArgumentException.class, () -> service.atualizar(99L, contato));
+        assertThrows(ContatoNaoEncontradoException.class, () -> service.atualizar(99L, contato));
     }
 
     // =============================
@@ -123,7 +216,7 @@ class ContatoServiceTest {
     @Test
     void deveLancarExcecaoAoDeletarInexistente() {
         when(repository.findById(2L)).thenReturn(Optional.empty());
-        assertThrows(IllegalArgumentException.class, () -> service.deletarPorId(2L));
+        assertThrows(ContatoNaoEncontradoException.class, () -> service.deletarPorId(2L));
     }
 
     // =============================
@@ -147,10 +240,54 @@ class ContatoServiceTest {
         verify(repository).save(contato);
     }
 
+    @Test
+    void devePublicarEventoSoComOCampoAlteradoAoInativar() {
+        when(repository.findById(1L)).thenReturn(Optional.of(contato));
+
+        service.inativar(1L);
+
+        ArgumentCaptor<ContatoAlteradoEvent> captor = ArgumentCaptor.forClass(ContatoAlteradoEvent.class);
+        verify(eventos).publishEvent(captor.capture());
+        assertEquals(TipoAlteracao.INATIVADO, captor.getValue().tipo());
+        assertEquals(1L, captor.getValue().contatoId());
+        assertEquals(Map.of("ativo", Arrays.asList(true, false)), captor.getValue().alteracoes());
+    }
+
+    @Test
+    void naoDevePublicarEventoQuandoNadaMuda() {
+        contato.setAtivo(false);
+        when(repository.findById(1L)).thenReturn(Optional.of(contato));
+
+        service.inativar(1L);
+
+        verify(eventos, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void devePublicarDiffDosCamposAlteradosNoAtualizar() {
+        when(repository.findById(1L)).thenReturn(Optional.of(contato));
+        when(repository.save(any())).thenReturn(contato);
+
+        Contato atualizado = new Contato();
+        atualizado.setNome("Allysson Atualizado");
+        atualizado.setCelular("81999999999");
+        atualizado.setTelefone("8133333333");
+        atualizado.setEmail("allysson@email.com");
+        atualizado.setAtivo(true);
+
+        service.atualizar(1L, atualizado);
+
+        ArgumentCaptor<ContatoAlteradoEvent> captor = ArgumentCaptor.forClass(ContatoAlteradoEvent.class);
+        verify(eventos).publishEvent(captor.capture());
+        assertEquals(TipoAlteracao.ATUALIZADO, captor.getValue().tipo());
+        assertEquals(List.of("nome", "telefones"), List.copyOf(captor.getValue().alteracoes().keySet()));
+        assertEquals(Arrays.asList("Allysson", "Allysson Atualizado"), captor.getValue().alteracoes().get("nome"));
+    }
+
     @Test
     void deveLancarExcecaoAoInativarContatoInexistente() {
         when(repository.findById(10L)).thenReturn(Optional.empty());
-        assertThrows(IllegalArgumentException.class, () -> service.inativar(10L));
+        assertThrows(ContatoNaoEncontradoException.class, () -> service.inativar(10L));
     }
 
     // =============================
@@ -180,6 +317,16 @@ class ContatoServiceTest {
         verify(repository).save(contato);
     }
 
+    @Test
+    void deveLancarNaoEncontradoAoFavoritarContatoInexistente() {
+        when(repository.findById(5L)).thenReturn(Optional.empty());
+
+        ContatoNaoEncontradoException e = assertThrows(ContatoNaoEncontradoException.class, () -> service.favoritar(5L));
+
+        assertEquals("Contato não encontrado com ID: 5", e.getMessage());
+        assertEquals(0, e.getStackTrace().length);
+    }
+
     // =============================
     // TESTES: LISTAGENS / CONTAGENS
     // =============================
@@ -208,6 +355,95 @@ class ContatoServiceTest {
         assertEquals(1, result.size());
     }
 
+    @Test
+    void deveListarOrdenandoPorNomeEIdEReaproveitarContagem() {
+        ReflectionTestUtils.setField(service, "contagemTtlMs", 60_000L);
+        ReflectionTestUtils.setField(service, "maximoContagens", 10);
+        ContatoFiltro filtro = new ContatoFiltro(true, null, true, null);
+        when(repository.listar(eq(filtro), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(contato), PageRequest.of(0, 20), true));
+        when(repository.estimar(filtro)).thenReturn(1234L);
+
+        Page<Contato> primeira = service.listar(filtro, PageRequest.of(0, 20));
+        Page<Contato> segunda = service.listar(filtro, PageRequest.of(1, 20));
+
+        assertEquals(1234, primeira.getTotalElements());
+        assertEquals(1234, segunda.getTotalElements());
+        verify(repository, times(1)).estimar(filtro);
+
+        ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+        verify(repository, times(2)).listar(eq(filtro), captor.capture());
+        assertEquals(Sort.by("nome", "id"), captor.getValue().getSort());
+    }
+
+    @Test
+    void deveRecusarOrdenacaoPorCampoSemIndice() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.listar(new ContatoFiltro(null, null, null, null), PageRequest.of(0, 20, Sort.by("celular"))));
+        verify(repository, never()).listar(any(), any());
+    }
+
+    // =============================
+    // TESTES: TAGS
+    // =============================
+
+    @Test
+    void deveAtualizarContadoresAoTrocarTagsNoAtualizar() {
+        Tag vendas = new Tag("vendas");
+        Tag nordeste = new Tag("Nordeste");
+        contato.setTags(new HashSet<>(Set.of(vendas)));
+        when(repository.findById(1L)).thenReturn(Optional.of(contato));
+        when(repository.save(any())).thenReturn(contato);
+        when(tagService.resolver(Set.of(nordeste))).thenReturn(new HashSet<>(Set.of(nordeste)));
+
+        Contato atualizado = new Contato();
+        atualizado.setCelular("81999999999");
+        atualizado.setTags(Set.of(nordeste));
+
+        service.atualizar(1L, atualizado);
+
+        verify(tagService).atualizarContadores(Set.of(vendas), Set.of(nordeste));
+        assertEquals(Set.of(nordeste), contato.getTags());
+    }
+
+    @Test
+    void deveManterTagsQuandoNaoInformadasNoAtualizar() {
+        contato.setTags(new HashSet<>(Set.of(new Tag("vendas"))));
+        when(repository.findById(1L)).thenReturn(Optional.of(contato));
+        when(repository.save(any())).thenReturn(contato);
+
+        Contato atualizado = new Contato();
+        atualizado.setCelular("81999999999");
+
+        service.atualizar(1L, atualizado);
+
+        assertEquals(Set.of(new Tag("vendas")), contato.getTags());
+        verify(tagService, never()).atualizarContadores(any(), any());
+    }
+
+    @Test
+    void deveDecrementarContadoresAoDeletar() {
+        contato.setTags(Set.of(new Tag("vendas")));
+        when(repository.findById(1L)).thenReturn(Optional.of(contato));
+
+        service.deletarPorId(1L);
+
+        verify(tagService).atualizarContadores(Set.of(new Tag("vendas")), Set.of());
+    }
+
+    @Test
+    void deveListarPorTagUsandoContadorComoTotal() {
+        PageRequest pageable = PageRequest.of(0, 20);
+        when(repository.findByTags_Nome("vendas", pageable)).thenReturn(new SliceImpl<>(List.of(contato), pageable, false));
+        when(tagService.totalPorTag(" Vendas ")).thenReturn(41L);
+
+        Page<Contato> pagina = service.listarPorTag(" Vendas ", pageable);
+
+        assertEquals(1, pagina.getContent().size());
+        assertEquals(41L, pagina.getTotalElements());
+        verify(repository, never()).count();
+    }
+
     @Test
     void deveContarTotais() {
         when(repository.count()).thenReturn(10L);
@@ -0,0 +1,207 @@
+package com.desafio.agenda_telefonica.service;
+
+import com.desafio.agenda_telefonica.evento.ContatoAlteradoEvent;
+import com.desafio.agenda_telefonica.model.TipoAlteracao;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ContatoStreamServiceTest {
+
+    private ContatoStreamService service;
+
+    private final List<Runnable> pendentes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        service = new ContatoStreamService();
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(service, "capacidadeFila", 4);
+        ReflectionTestUtils.setField(service, "tamanhoHistorico", 3);
+        ReflectionTestUtils.setField(service, "maximoAssinantes", 100);
+        // Envio síncrono, na thread do teste
+        ReflectionTestUtils.setField(service, "executor", (Executor) Runnable::run);
+    }
+
+    @Test
+    void deveEnviarEventoSoParaAssinantesDoMesmoTenant() throws IOException {
+        SseEmitter loja1 = mock(SseEmitter.class);
+        SseEmitter loja2 = mock(SseEmitter.class);
+        service.assinar(loja1, "loja-1", null);
+        service.assinar(loja2, "loja-2", null);
+
+        service.publicar(evento(7L, "loja-1"));
+
+        List<String> enviados = enviados(loja1);
+        assertEquals(2, enviados.size());
+        assertTrue(enviados.get(0).contains(":conectado"));
+        assertTrue(enviados.get(1).contains("id:" + service.idEvento(1) + "\nevent:contato\n"));
+        assertTrue(enviados.get(1).contains("\"tipo\":\"INATIVADO\",\"contatoId\":7"));
+        assertEquals(1, enviados(loja2).size());
+    }
+
+    @Test
+    void deveReenviarEventosPosterioresAoLastEventId() throws IOException {
+        service.publicar(evento(1L, "default"));
+        service.publicar(evento(2L, "default"));
+        service.publicar(evento(3L, "default"));
+
+        SseEmitter emitter = mock(SseEmitter.class);
+        service.assinar(emitter, "default", service.idEvento(1));
+
+        List<String> enviados = enviados(emitter);
+        assertEquals(3, enviados.size());
+        assertTrue(enviados.get(1).contains("id:" + service.idEvento(2) + "\n"));
+        assertTrue(enviados.get(2).contains("id:" + service.idEvento(3) + "\n"));
+    }
+
+    @Test
+    void devePedirRecargaQuandoLastEventIdSaiuDoHistorico() throws IOException {
+        for (long id = 1; id <= 5; id++) {
+            service.publicar(evento(id, "default"));
+        }
+
+        SseEmitter emitter = mock(SseEmitter.class);
+        service.assinar(emitter, "default", service.idEvento(1));
+
+        List<String> enviados = enviados(emitter);
+        assertEquals(2, enviados.size());
+        assertTrue(enviados.get(1).contains("event:recarregar\n"));
+    }
+
+    @Test
+    void devePedirRecargaQuandoLastEventIdEDeOutraSubida() throws IOException {
+        service.publicar(evento(1L, "default"));
+        service.publicar(evento(2L, "default"));
+
+        // Mesma sequência, época de antes do restart; e o formato antigo, só com a sequência
+        for (String ultimo : List.of("1-1", "1")) {
+            SseEmitter emitter = mock(SseEmitter.class);
+            service.assinar(emitter, "default", ultimo);
+
+            List<String> enviados = enviados(emitter);
+            assertEquals(2, enviados.size());
+            assertTrue(enviados.get(1).contains("event:recarregar\n"));
+        }
+    }
+
+    @Test
+    void deveDesconectarAssinanteLentoQuandoAFilaEnche() {
+        // Envio que nunca roda: as mensagens se acumulam na fila do assinante
+        ReflectionTestUtils.setField(service, "executor", (Executor) pendentes::add);
+        SseEmitter emitter = mock(SseEmitter.class);
+        service.assinar(emitter, "default", null);
+
+        for (long id = 1; id <= 4; id++) {
+            service.publicar(evento(id, "default"));
+        }
+        assertEquals(0, service.totalAssinantes());
+
+        // O emitter é concluído pelo pool, fora do lock da publicação
+        verify(emitter, never()).complete();
+        pendentes.forEach(Runnable::run);
+        verify(emitter).complete();
+    }
+
+    @Test
+    void deveDesconectarAssinanteQuandoOEnvioPassaDoPrazo() throws Exception {
+        ThreadPoolExecutor pool = (ThreadPoolExecutor) Executors.newFixedThreadPool(1);
+        ReflectionTestUtils.setField(service, "executor", pool);
+        ReflectionTestUtils.setField(service, "envioTimeoutMs", 50L);
+        ReflectionTestUtils.setField(service, "maximoEnviosPresos", 8);
+        CountDownLatch liberar = new CountDownLatch(1);
+        try {
+            SseEmitter rapido = mock(SseEmitter.class);
+            service.assinar(rapido, "loja-1", null);
+            // Cliente que não lê: o send do primeiro evento fica preso até o "timeout de escrita" (o latch)
+            SseEmitter travado = mock(SseEmitter.class);
+            CountDownLatch bloqueado = new CountDownLatch(1);
+            doNothing().doAnswer(invocacao -> {
+                bloqueado.countDown();
+                liberar.await();
+                throw new IOException("Write timeout");
+            }).when(travado).send(any(SseEmitter.SseEventBuilder.class));
+            service.assinar(travado, "loja-2", null);
+
+            service.publicar(evento(1L, "loja-2"));
+            assertTrue(bloqueado.await(5, TimeUnit.SECONDS));
+            Thread.sleep(100);
+            service.verificarEnvios();
+
+            // A única thread está presa, mas o pool ganhou outra: os demais assinantes continuam recebendo
+            assertEquals(1, service.totalAssinantes());
+            assertEquals(2, pool.getCorePoolSize());
+            service.publicar(evento(2L, "loja-1"));
+            verify(rapido, timeout(5000).times(2)).send(any(SseEmitter.SseEventBuilder.class));
+
+            // Quando o envio preso falha, a thread extra é devolvida
+            liberar.countDown();
+            verify(travado, timeout(5000)).completeWithError(any(IOException.class));
+            for (int i = 0; i < 50 && pool.getCorePoolSize() > 1; i++) {
+                Thread.sleep(100);
+            }
+            assertEquals(1, pool.getCorePoolSize());
+            assertEquals(1, pool.getMaximumPoolSize());
+        } finally {
+            liberar.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void deveRemoverAssinanteQuandoOEnvioFalha() throws IOException {
+        SseEmitter emitter = mock(SseEmitter.class);
+        doThrow(new IOException("Broken pipe")).when(emitter).send(any(SseEmitter.SseEventBuilder.class));
+
+        service.assinar(emitter, "default", null);
+
+        assertEquals(0, service.totalAssinantes());
+    }
+
+    @Test
+    void deveEnviarHeartbeatParaAssinanteOcioso() throws IOException {
+        SseEmitter emitter = mock(SseEmitter.class);
+        service.assinar(emitter, "default", null);
+
+        service.heartbeat();
+
+        List<String> enviados = enviados(emitter);
+        assertEquals(2, enviados.size());
+        assertTrue(enviados.get(1).contains(":heartbeat"));
+    }
+
+    private static ContatoAlteradoEvent evento(Long contatoId, String tenant) {
+        return new ContatoAlteradoEvent(TipoAlteracao.INATIVADO, contatoId, tenant, Instant.parse("2025-01-01T00:00:00Z"),
+                Map.of("ativo", List.of(true, false)));
+    }
+
+    // Texto de cada evento enviado ao emitter, na ordem
+    private static List<String> enviados(SseEmitter emitter) throws IOException {
+        ArgumentCaptor<SseEmitter.SseEventBuilder> captor = ArgumentCaptor.forClass(SseEmitter.SseEventBuilder.class);
+        verify(emitter, atLeast(0)).send(captor.capture());
+        return captor.getAllValues().stream()
+                .map(builder -> builder.build().stream()
+                        .map(d -> d.getData().toString())
+                        .collect(Collectors.joining()))
+                .toList();
+    }
+}
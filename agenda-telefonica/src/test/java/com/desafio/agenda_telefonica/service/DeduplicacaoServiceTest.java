@@ -0,0 +1,231 @@
+package com.desafio.agenda_telefonica.service;
+
+import com.desafio.agenda_telefonica.deduplicacao.ContatoResumo;
+import com.desafio.agenda_telefonica.deduplicacao.NumeroContato;
+import com.desafio.agenda_telefonica.deduplicacao.ParDuplicado;
+import com.desafio.agenda_telefonica.dto.MesclagemDTO;
+import com.desafio.agenda_telefonica.evento.ContatoAlteradoEvent;
+import com.desafio.agenda_telefonica.exception.ContatoNaoEncontradoException;
+import com.desafio.agenda_telefonica.model.Contato;
+import com.desafio.agenda_telefonica.model.ContatoDuplicidade;
+import com.desafio.agenda_telefonica.model.ContatoTelefone;
+import com.desafio.agenda_telefonica.model.Tag;
+import com.desafio.agenda_telefonica.model.TipoAlteracao;
+import com.desafio.agenda_telefonica.model.TipoTelefone;
+import com.desafio.agenda_telefonica.repository.ContatoDuplicidadeRepository;
+import com.desafio.agenda_telefonica.repository.ContatoRepository;
+import com.desafio.agenda_telefonica.repository.ContatoTelefoneRepository;
+import com.desafio.agenda_telefonica.tenant.TenantContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class DeduplicacaoServiceTest {
+
+    @Mock
+    private ContatoRepository contatoRepository;
+
+    @Mock
+    private ContatoTelefoneRepository telefoneRepository;
+
+    @Mock
+    private ContatoDuplicidadeRepository duplicidadeRepository;
+
+    @Mock
+    private TagService tagService;
+
+    @Mock
+    private ApplicationEventPublisher eventos;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private DeduplicacaoService service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(service, "tamanhoLote", 2000);
+        ReflectionTestUtils.setField(service, "limite", 0.55);
+        ReflectionTestUtils.setField(service, "blocoMaximo", 200);
+        ReflectionTestUtils.setField(service, "paralelismo", 2);
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    // =============================
+    // TESTES: DETECÇÃO
+    // =============================
+
+    @Test
+    void deveEncontrarDuplicadosPorTelefoneEmailENome() {
+        when(contatoRepository.findResumos(0L, Limit.of(2000))).thenReturn(List.of(
+                new ContatoResumo(1L, "Allysson Tavares", "allysson@email.com"),
+                new ContatoResumo(2L, "Alisson Tavarez", null),
+                new ContatoResumo(3L, "Maria Souza", "maria@email.com"),
+                new ContatoResumo(4L, "João Lima", " MARIA@email.com"),
+                new ContatoResumo(5L, "Maria Sousa", null),
+                new ContatoResumo(6L, "Pedro Alves", null)));
+        when(telefoneRepository.findNumerosPorFaixa(0L, 6L)).thenReturn(List.of(
+                new NumeroContato(1L, "81999999999"),
+                new NumeroContato(2L, "81999999999"),
+                new NumeroContato(3L, "81988887777"),
+                new NumeroContato(4L, "8133334444"),
+                new NumeroContato(5L, "8132221111"),
+                new NumeroContato(6L, "8133334445")));
+
+        List<ParDuplicado> pares = service.detectar();
+
+        assertEquals(List.of(
+                new ParDuplicado(1L, 2L, 1.0, "telefone,nome"),
+                new ParDuplicado(3L, 4L, 0.722, "email"),
+                new ParDuplicado(3L, 5L, 0.578, "nome")), pares);
+        verify(duplicidadeRepository).apagarDoTenant("default");
+        ArgumentCaptor<List<ContatoDuplicidade>> gravados = ArgumentCaptor.forClass(List.class);
+        verify(duplicidadeRepository).saveAll(gravados.capture());
+        assertEquals(3, gravados.getValue().size());
+    }
+
+    @Test
+    void deveIgnorarBlocosMaioresQueOLimite() {
+        ReflectionTestUtils.setField(service, "blocoMaximo", 2);
+        when(contatoRepository.findResumos(0L, Limit.of(2000))).thenReturn(List.of(
+                new ContatoResumo(1L, "Ana", null),
+                new ContatoResumo(2L, "Bruno", null),
+                new ContatoResumo(3L, "Carla", null)));
+        when(telefoneRepository.findNumerosPorFaixa(0L, 3L)).thenReturn(List.of(
+                new NumeroContato(1L, "8133330000"),
+                new NumeroContato(2L, "8133330000"),
+                new NumeroContato(3L, "8133330000")));
+
+        assertTrue(service.detectar().isEmpty());
+        verify(duplicidadeRepository, never()).saveAll(anyList());
+    }
+
+    // =============================
+    // TESTES: MESCLAGEM
+    // =============================
+
+    @Test
+    void deveMesclarDuplicadoNoPrincipal() {
+        Contato principal = contato(1L, "Allysson", "81999999999", null);
+        Contato duplicado = contato(2L, "Alisson", "81977776666", "allysson@email.com");
+        duplicado.getTelefones().add(new ContatoTelefone(TipoTelefone.COMERCIAL, "8132221111"));
+        duplicado.setTags(new HashSet<>(Set.of(new Tag("vendas"))));
+        when(contatoRepository.findById(1L)).thenReturn(Optional.of(principal));
+        when(contatoRepository.findById(2L)).thenReturn(Optional.of(duplicado));
+        when(contatoRepository.save(principal)).thenReturn(principal);
+
+        List<Contato> mesclados = service.mesclar(List.of(new MesclagemDTO(1L, List.of(2L))));
+
+        assertSame(principal, mesclados.get(0));
+        assertEquals("allysson@email.com", principal.getEmail());
+        assertEquals(List.of("81999999999", "81977776666", "8132221111"),
+                principal.getTelefones().stream().map(ContatoTelefone::getNumeroNormalizado).toList());
+        assertEquals(Set.of(new Tag("vendas")), principal.getTags());
+
+        // Duplicado apagado e flush antes de o principal receber o celular dele
+        InOrder ordem = inOrder(contatoRepository);
+        ordem.verify(contatoRepository).delete(duplicado);
+        ordem.verify(contatoRepository).flush();
+        ordem.verify(contatoRepository).save(principal);
+
+        verify(tagService).atualizarContadores(Set.of(new Tag("vendas")), Set.of());
+        verify(tagService).atualizarContadores(Set.of(), Set.of(new Tag("vendas")));
+        verify(duplicidadeRepository).apagarEnvolvendo(Set.of(1L, 2L));
+
+        ArgumentCaptor<ContatoAlteradoEvent> captor = ArgumentCaptor.forClass(ContatoAlteradoEvent.class);
+        verify(eventos, times(2)).publishEvent(captor.capture());
+        assertEquals(List.of(TipoAlteracao.REMOVIDO, TipoAlteracao.MESCLADO),
+                captor.getAllValues().stream().map(ContatoAlteradoEvent::tipo).toList());
+    }
+
+    @Test
+    void deveRecusarContatoRepetidoNaMesclagem() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.mesclar(List.of(new MesclagemDTO(1L, List.of(2L)), new MesclagemDTO(3L, List.of(2L)))));
+        verify(contatoRepository, never()).delete(any());
+    }
+
+    @Test
+    void deveLancarNaoEncontradoAoMesclarDuplicadoInexistente() {
+        when(contatoRepository.findById(1L)).thenReturn(Optional.of(contato(1L, "Allysson", "81999999999", null)));
+        when(contatoRepository.findById(9L)).thenReturn(Optional.empty());
+
+        assertThrows(ContatoNaoEncontradoException.class,
+                () -> service.mesclar(List.of(new MesclagemDTO(1L, List.of(9L)))));
+        verify(contatoRepository, never()).save(any());
+    }
+
+    @Test
+    void deveRecusarSegundaDeteccaoSoDoMesmoTenant() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch concluidas = new CountDownLatch(2);
+        when(contatoRepository.findResumos(anyLong(), any())).thenAnswer(invocation -> {
+            liberar.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        doAnswer(invocation -> {
+            concluidas.countDown();
+            return 0;
+        }).when(duplicidadeRepository).apagarDoTenant(anyString());
+
+        try {
+            TenantContext.setTenantId("loja-1");
+            assertTrue(service.iniciarDeteccao());
+            assertFalse(service.iniciarDeteccao());
+
+            TenantContext.setTenantId("loja-2");
+            assertTrue(service.iniciarDeteccao());
+
+            liberar.countDown();
+            assertTrue(concluidas.await(5, TimeUnit.SECONDS));
+            verify(duplicidadeRepository).apagarDoTenant("loja-1");
+            verify(duplicidadeRepository).apagarDoTenant("loja-2");
+        } finally {
+            TenantContext.limpar();
+            service.encerrar();
+        }
+    }
+
+    private static Contato contato(Long id, String nome, String celular, String email) {
+        Contato contato = new Contato();
+        contato.setId(id);
+        contato.setNome(nome);
+        contato.setCelular(celular);
+        contato.setEmail(email);
+        contato.setAtivo(true);
+        ContatoTelefone telefone = new ContatoTelefone(TipoTelefone.CELULAR, celular);
+        telefone.setContato(contato);
+        contato.setTelefones(new ArrayList<>(List.of(telefone)));
+        return contato;
+    }
+}
@@ -0,0 +1,100 @@
+package com.desafio.agenda_telefonica.tenant;
+
+import com.desafio.agenda_telefonica.exception.ContatoNaoEncontradoException;
+import com.desafio.agenda_telefonica.model.Contato;
+import com.desafio.agenda_telefonica.model.Tag;
+import com.desafio.agenda_telefonica.service.ContatoService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Isolamento entre tenants no banco (H2 em modo PostgreSQL): o filtro tenant_id do Hibernate
+// e as constraints unique por (tenant_id, ...) no lugar das globais
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tenancy;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"})
+class TenancyIsolamentoTest {
+
+    @Autowired
+    private ContatoService service;
+
+    @AfterEach
+    void limparTenant() {
+        TenantContext.limpar();
+    }
+
+    @Test
+    void tenantNaoDeveEnxergarContatosDeOutroTenant() {
+        TenantContext.setTenantId("loja-a");
+        Contato daLojaA = service.salvar(contato("Ana da Loja A", "81988880001", "isolamento"));
+
+        TenantContext.setTenantId("loja-b");
+        assertTrue(service.buscarPorId(daLojaA.getId()).isEmpty());
+        assertTrue(service.listar().stream().noneMatch(c -> c.getId().equals(daLojaA.getId())));
+        assertEquals(0, service.totalPorTag("isolamento"));
+        assertThrows(ContatoNaoEncontradoException.class, () -> service.inativar(daLojaA.getId()));
+        assertThrows(ContatoNaoEncontradoException.class, () -> service.deletarPorId(daLojaA.getId()));
+
+        TenantContext.setTenantId("loja-a");
+        Contato relido = service.buscarPorId(daLojaA.getId()).orElseThrow();
+        assertTrue(relido.isAtivo());
+        assertEquals(1, service.totalPorTag("isolamento"));
+    }
+
+    @Test
+    void tenantsDiferentesPodemGravarOMesmoCelularETag() {
+        TenantContext.setTenantId("loja-c");
+        Contato daLojaC = service.salvar(contato("Caio da Loja C", "81988880002", "compartilhada"));
+
+        TenantContext.setTenantId("loja-d");
+        Contato daLojaD = service.salvar(contato("Davi da Loja D", "81988880002", "compartilhada"));
+
+        assertNotEquals(daLojaC.getId(), daLojaD.getId());
+        assertEquals(1, service.totalPorTag("compartilhada"));
+        assertEquals("Davi da Loja D", service.buscarPorId(daLojaD.getId()).orElseThrow().getNome());
+
+        TenantContext.setTenantId("loja-c");
+        assertEquals(1, service.totalPorTag("compartilhada"));
+        assertEquals("Caio da Loja C", service.buscarPorId(daLojaC.getId()).orElseThrow().getNome());
+    }
+
+    @Test
+    void tenantComSchemaProprioDeveReceberConexaoNoSchema() throws Exception {
+        DriverManagerDataSource dataSource =
+                new DriverManagerDataSource("jdbc:h2:mem:tenancy-schemas;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Connection conexao = dataSource.getConnection()) {
+            conexao.createStatement().execute("create schema if not exists AGENDA_GRANDE");
+        }
+        TenantSchemaConnectionProvider provider =
+                new TenantSchemaConnectionProvider(dataSource, Map.of("grande", "AGENDA_GRANDE"));
+
+        try (Connection grande = provider.getConnection("grande");
+             Connection outro = provider.getConnection("pequeno")) {
+            assertEquals("AGENDA_GRANDE", grande.getSchema());
+            assertEquals("PUBLIC", outro.getSchema());
+        }
+    }
+
+    private static Contato contato(String nome, String celular, String tag) {
+        Contato contato = new Contato();
+        contato.setNome(nome);
+        contato.setCelular(celular);
+        contato.setTelefones(new ArrayList<>());
+        contato.setTags(new HashSet<>(Set.of(new Tag(tag))));
+        return contato;
+    }
+}